@@ -0,0 +1,122 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class holds the benchmark parameters and the generated dictionary 
+ * shared by all the data structure benchmarks. Half of the query strings are
+ * in the dictionary and half are random strings of the same shape.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public abstract class AbstractDictionaryBenchmark {
+    
+    private static final String ALPHABET = 
+            "abcdefghijklmnopqrstuvwxyz" +
+            "0123456789" + 
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    
+    // Both must be powers of two:
+    private static final int NUMBER_OF_QUERY_STRINGS = 1 << 12;
+    private static final int NUMBER_OF_PREFIXES = 1 << 8;
+    
+    private static final long SEED = 1255L;
+    
+    @Param({"10000", "500000"})
+    public int dictionarySize;
+    
+    @Param({"5", "20"})
+    public int stringLength;
+    
+    @Param({"10", "26"})
+    public int alphabetSize;
+    
+    @Param({"1", "3"})
+    public int prefixLength;
+    
+    protected String[] strings;
+    protected String[] queryStrings;
+    protected String[] prefixes;
+    
+    private int queryIndex;
+    private int prefixIndex;
+    
+    @Setup(Level.Trial)
+    public void setUpDictionary() {
+        if (alphabetSize < 1 || alphabetSize > ALPHABET.length()) {
+            throw new IllegalArgumentException(
+                    "The alphabet size must be within [1, " 
+                            + ALPHABET.length() + "].");
+        }
+        
+        Random random = new Random(SEED);
+        strings = new String[dictionarySize];
+        
+        for (int i = 0; i < strings.length; ++i) {
+            strings[i] = generateString(random);
+        }
+        
+        queryStrings = new String[NUMBER_OF_QUERY_STRINGS];
+        
+        for (int i = 0; i < queryStrings.length; ++i) {
+            queryStrings[i] = i % 2 == 0 ? 
+                    strings[random.nextInt(strings.length)] :
+                    generateString(random);
+        }
+        
+        prefixes = new String[NUMBER_OF_PREFIXES];
+        
+        for (int i = 0; i < prefixes.length; ++i) {
+            String s = strings[random.nextInt(strings.length)];
+            prefixes[i] = s.substring(0, Math.min(prefixLength, s.length()));
+        }
+    }
+    
+    /**
+     * Returns the characters the strings are made of.
+     * 
+     * @return the alphabet of the dictionary.
+     */
+    protected String getAlphabet() {
+        return ALPHABET.substring(0, alphabetSize);
+    }
+    
+    protected String nextQueryString() {
+        return queryStrings[queryIndex++ & (NUMBER_OF_QUERY_STRINGS - 1)];
+    }
+    
+    protected String nextPrefix() {
+        return prefixes[prefixIndex++ & (NUMBER_OF_PREFIXES - 1)];
+    }
+    
+    private String generateString(Random random) {
+        int length = 1 + random.nextInt(stringLength);
+        char[] chars = new char[length];
+        
+        for (int i = 0; i < length; ++i) {
+            chars[i] = ALPHABET.charAt(random.nextInt(alphabetSize));
+        }
+        
+        return new String(chars);
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import com.github.coderodde.text.autocomplete.ArenaPrefixTree;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the operations of {@link ArenaPrefixTree}. The bulk 
+ * operations {@code add}, {@code remove} and {@code iterator} are measured 
+ * over the entire dictionary, the rest per single call. The methods mirror 
+ * {@link PrefixTreeBenchmark}, so running both side by side compares the 
+ * arena layout with the object graph, the GC profiler reporting the 
+ * allocation rates and the collection counts.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class ArenaPrefixTreeBenchmark extends AbstractDictionaryBenchmark {
+    
+    private ArenaPrefixTree prefixTree;
+    
+    @State(Scope.Thread)
+    public static class RemovalState {
+        
+        ArenaPrefixTree prefixTree;
+        
+        @Setup(Level.Invocation)
+        public void setUp(ArenaPrefixTreeBenchmark benchmark) {
+            prefixTree = benchmark.buildArenaPrefixTree();
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUpArenaPrefixTree() {
+        prefixTree = buildArenaPrefixTree();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArenaPrefixTree add() {
+        return buildArenaPrefixTree();
+    }
+    
+    @Benchmark
+    public boolean contains() {
+        return prefixTree.contains(nextQueryString());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ArenaPrefixTree remove(RemovalState state) {
+        for (String s : strings) {
+            state.prefixTree.remove(s);
+        }
+        
+        return state.prefixTree;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> autocomplete() {
+        return prefixTree.autocomplete(nextPrefix());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void iterator(Blackhole blackhole) {
+        for (String s : prefixTree) {
+            blackhole.consume(s);
+        }
+    }
+    
+    ArenaPrefixTree buildArenaPrefixTree() {
+        ArenaPrefixTree tree = new ArenaPrefixTree();
+        
+        for (String s : strings) {
+            tree.add(s);
+        }
+        
+        return tree;
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import com.github.coderodde.text.autocomplete.AutocompleteSystem;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the operations of {@link AutocompleteSystem}. The 
+ * bulk operations {@code add}, {@code remove} and {@code iterator} are 
+ * measured over the entire dictionary, the rest per single call.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class AutocompleteSystemBenchmark extends AbstractDictionaryBenchmark {
+    
+    private AutocompleteSystem autocompleteSystem;
+    
+    @State(Scope.Thread)
+    public static class RemovalState {
+        
+        AutocompleteSystem autocompleteSystem;
+        
+        @Setup(Level.Invocation)
+        public void setUp(AutocompleteSystemBenchmark benchmark) {
+            autocompleteSystem = benchmark.buildAutocompleteSystem();
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUpAutocompleteSystem() {
+        autocompleteSystem = buildAutocompleteSystem();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AutocompleteSystem add() {
+        return buildAutocompleteSystem();
+    }
+    
+    @Benchmark
+    public boolean contains() {
+        return autocompleteSystem.contains(nextQueryString());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public AutocompleteSystem remove(RemovalState state) {
+        for (String s : strings) {
+            state.autocompleteSystem.remove(s);
+        }
+        
+        return state.autocompleteSystem;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> autocomplete() {
+        return autocompleteSystem.autocomplete(nextPrefix());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void iterator(Blackhole blackhole) {
+        for (String s : autocompleteSystem) {
+            blackhole.consume(s);
+        }
+    }
+    
+    AutocompleteSystem buildAutocompleteSystem() {
+        AutocompleteSystem tree = new AutocompleteSystem();
+        
+        for (String s : strings) {
+            tree.add(s);
+        }
+        
+        return tree;
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import com.github.coderodde.text.autocomplete.ConcurrentPrefixTree;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * This class measures the throughput of many readers running 
+ * {@code contains} and {@code autocomplete} next to a writer running 
+ * {@code add} and {@code remove}. It compares {@link ConcurrentPrefixTree} 
+ * against a {@link PrefixTree} guarded by a global lock, which is what the
+ * callers had to do before.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentPrefixTreeBenchmark 
+        extends AbstractDictionaryBenchmark {
+    
+    private static final int READER_THREADS = 3;
+    
+    private ConcurrentPrefixTree concurrentPrefixTree;
+    private PrefixTree synchronizedPrefixTree;
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        
+        int index;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            index = System.identityHashCode(this);
+        }
+        
+        String next(String[] array) {
+            // All the arrays have a power of two length:
+            return array[index++ & (array.length - 1)];
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUpTrees() {
+        concurrentPrefixTree = new ConcurrentPrefixTree();
+        synchronizedPrefixTree = new PrefixTree();
+        
+        for (String s : strings) {
+            concurrentPrefixTree.add(s);
+            synchronizedPrefixTree.add(s);
+        }
+    }
+    
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(READER_THREADS)
+    public boolean concurrentContains(Cursor cursor) {
+        return concurrentPrefixTree.contains(cursor.next(queryStrings));
+    }
+    
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(READER_THREADS)
+    public List<String> concurrentAutocomplete(Cursor cursor) {
+        return concurrentPrefixTree.autocomplete(cursor.next(prefixes));
+    }
+    
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public boolean concurrentUpdate(Cursor cursor) {
+        String s = cursor.next(queryStrings);
+        
+        return concurrentPrefixTree.remove(s) || 
+               concurrentPrefixTree.add(s);
+    }
+    
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(READER_THREADS)
+    public boolean synchronizedContains(Cursor cursor) {
+        String s = cursor.next(queryStrings);
+        
+        synchronized (synchronizedPrefixTree) {
+            return synchronizedPrefixTree.contains(s);
+        }
+    }
+    
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(READER_THREADS)
+    public List<String> synchronizedAutocomplete(Cursor cursor) {
+        String prefix = cursor.next(prefixes);
+        
+        synchronized (synchronizedPrefixTree) {
+            return synchronizedPrefixTree.autocomplete(prefix);
+        }
+    }
+    
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(1)
+    public boolean synchronizedUpdate(Cursor cursor) {
+        String s = cursor.next(queryStrings);
+        
+        synchronized (synchronizedPrefixTree) {
+            return synchronizedPrefixTree.remove(s) || 
+                   synchronizedPrefixTree.add(s);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import com.github.coderodde.text.autocomplete.Alphabet;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * This class compares the lookup throughput of {@link PrefixTree} with the 
+ * default sparse child maps against the dense child arrays of a tree 
+ * constructed with the {@link Alphabet} of the dictionary.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DensePrefixTreeBenchmark extends AbstractDictionaryBenchmark {
+    
+    @Param({"sparse", "dense"})
+    public String layout;
+    
+    private PrefixTree prefixTree;
+    
+    @Setup(Level.Trial)
+    public void setUpPrefixTree() {
+        prefixTree = layout.equals("dense") ? 
+                     new PrefixTree(new Alphabet(getAlphabet())) :
+                     new PrefixTree();
+        
+        for (String s : strings) {
+            prefixTree.add(s);
+        }
+    }
+    
+    @Benchmark
+    public boolean contains() {
+        return prefixTree.contains(nextQueryString());
+    }
+    
+    @Benchmark
+    public int countWithPrefix() {
+        return prefixTree.countWithPrefix(nextPrefix());
+    }
+}
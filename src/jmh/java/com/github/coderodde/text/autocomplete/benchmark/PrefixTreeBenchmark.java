@@ -0,0 +1,87 @@
+package com.github.coderodde.text.autocomplete.benchmark;
+
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class benchmarks the operations of {@link PrefixTree}. The bulk 
+ * operations {@code add}, {@code remove} and {@code iterator} are measured 
+ * over the entire dictionary, the rest per single call.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class PrefixTreeBenchmark extends AbstractDictionaryBenchmark {
+    
+    private PrefixTree prefixTree;
+    
+    @State(Scope.Thread)
+    public static class RemovalState {
+        
+        PrefixTree prefixTree;
+        
+        @Setup(Level.Invocation)
+        public void setUp(PrefixTreeBenchmark benchmark) {
+            prefixTree = benchmark.buildPrefixTree();
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void setUpPrefixTree() {
+        prefixTree = buildPrefixTree();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PrefixTree add() {
+        return buildPrefixTree();
+    }
+    
+    @Benchmark
+    public boolean contains() {
+        return prefixTree.contains(nextQueryString());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PrefixTree remove(RemovalState state) {
+        for (String s : strings) {
+            state.prefixTree.remove(s);
+        }
+        
+        return state.prefixTree;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> autocomplete() {
+        return prefixTree.autocomplete(nextPrefix());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void iterator(Blackhole blackhole) {
+        for (String s : prefixTree) {
+            blackhole.consume(s);
+        }
+    }
+    
+    PrefixTree buildPrefixTree() {
+        PrefixTree tree = new PrefixTree();
+        
+        for (String s : strings) {
+            tree.add(s);
+        }
+        
+        return tree;
+    }
+}
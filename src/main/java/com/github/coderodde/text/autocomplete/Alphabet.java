@@ -0,0 +1,129 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * This class implements a fixed set of characters, each mapped to a dense
+ * index in {@code [0, size())} in ascending character order. A prefix tree
+ * constructed with an alphabet holds the children of each node in an array
+ * indexed by these indices instead of searching or hashing the characters.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class Alphabet {
+    
+    /**
+     * The decimal digits.
+     */
+    public static final Alphabet DIGITS = new Alphabet("0123456789");
+    
+    /**
+     * The hexadecimal digits in lower case.
+     */
+    public static final Alphabet LOWERCASE_HEX =
+            new Alphabet("0123456789abcdef");
+    
+    /**
+     * The ASCII letters in lower case.
+     */
+    public static final Alphabet LOWERCASE_LETTERS =
+            new Alphabet("abcdefghijklmnopqrstuvwxyz");
+    
+    // The characters in ascending order:
+    private final char[] characters;
+    
+    // indices[ch - minimumCharacter] is the index of 'ch', or -1:
+    private final int[] indices;
+    private final char minimumCharacter;
+    
+    /**
+     * Constructs an alphabet of the characters in {@code characters}, given
+     * in any order.
+     *
+     * @param characters the characters of the alphabet.
+     * @throws IllegalArgumentException if {@code characters} is empty or
+     *                                  contains a character twice.
+     */
+    public Alphabet(String characters) {
+        Objects.requireNonNull(characters, "The characters are null.");
+        
+        if (characters.isEmpty()) {
+            throw new IllegalArgumentException("The alphabet is empty.");
+        }
+        
+        this.characters = characters.toCharArray();
+        Arrays.sort(this.characters);
+        this.minimumCharacter = this.characters[0];
+        
+        char maximumCharacter = this.characters[this.characters.length - 1];
+        this.indices = new int[maximumCharacter - minimumCharacter + 1];
+        Arrays.fill(indices, -1);
+        
+        for (int i = 0; i < this.characters.length; ++i) {
+            char ch = this.characters[i];
+            
+            if (i > 0 && ch == this.characters[i - 1]) {
+                throw new IllegalArgumentException(
+                        "Duplicate character: '" + ch + "'.");
+            }
+            
+            indices[ch - minimumCharacter] = i;
+        }
+    }
+    
+    public int size() {
+        return characters.length;
+    }
+    
+    /**
+     * Returns the index of {@code ch} in this alphabet.
+     *
+     * @param ch the character to look up.
+     * @return the index of {@code ch}, or -1 if not in this alphabet.
+     */
+    public int indexOf(char ch) {
+        int offset = ch - minimumCharacter;
+        return offset >= 0 && offset < indices.length ? indices[offset] : -1;
+    }
+    
+    /**
+     * Returns the character at the index {@code index}.
+     *
+     * @param index the index of the character.
+     * @return the character.
+     */
+    public char charAt(int index) {
+        return characters[index];
+    }
+    
+    public boolean contains(char ch) {
+        return indexOf(ch) >= 0;
+    }
+    
+    /**
+     * Checks that all the characters of {@code s} are in this alphabet.
+     *
+     * @param s the string to check.
+     * @throws IllegalArgumentException if a character is not in this alphabet.
+     */
+    void checkString(String s) {
+        for (int i = 0, length = s.length(); i < length; ++i) {
+            char ch = s.charAt(i);
+            
+            if (indexOf(ch) < 0) {
+                throw new IllegalArgumentException(
+                        "The character '" + ch + "' at index " + i
+                                + " of \"" + s + "\" is not in the "
+                                + "alphabet \"" + this + "\".");
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return new String(characters);
+    }
+}
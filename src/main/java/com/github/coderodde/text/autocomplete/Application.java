@@ -1,12 +1,18 @@
 package com.github.coderodde.text.autocomplete;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * This class implements the internal state of the demonstration program for the
- * prefix tree vs. {@link java.util.HashSet}.
+ * prefix tree vs. {@link java.util.HashSet}. The commands are run against an
+ * {@link AutocompleteEngine} chosen at construction time, and their results 
+ * are printed to a configurable stream.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Jan 26, 2022)
@@ -22,36 +28,112 @@ public class Application {
         static final String PRINT           = "print";
     }
     
-    protected final PrefixTree prefixTree = new PrefixTree();
+    protected final AutocompleteEngine engine;
+    protected final PrintStream out;
+    
+    public Application() {
+        this(new PrefixTree());
+    }
+    
+    public Application(AutocompleteEngine engine) {
+        this(engine, System.out);
+    }
+    
+    public Application(AutocompleteEngine engine, PrintStream out) {
+        this.engine = Objects.requireNonNull(engine, "The engine is null.");
+        this.out = Objects.requireNonNull(out, "The output stream is null.");
+    }
     
     public void addString(String s) {
         checkInputStringNotNull(s);
-        prefixTree.add(s);
-        System.out.println(getAllStrings());
+        engine.add(s);
+        out.println(getAllStrings());
     }
     
     public void removeString(String s) {
         checkInputStringNotNull(s);
-        prefixTree.remove(s);
-        System.out.println(getAllStrings());
+        engine.remove(s);
+        out.println(getAllStrings());
     }
     
     public void containsString(String s) {
         checkInputStringNotNull(s);
-        System.out.println(prefixTree.contains(s));
+        out.println(engine.contains(s));
     }
     
     public void autocompletePrefix(String prefix) {
         checkPrefixNotNull(prefix);
-        List<String> list = prefixTree.autocomplete(prefix);
+        List<String> list = engine.autocomplete(prefix);
         Collections.<String>sort(list);
-        System.out.println(list);
+        out.println(list);
     }
     
     public void printAll() {
         autocompletePrefix("");
     }
     
+    /**
+     * Runs the commands read from {@code reader}, one per line, until the end
+     * of the input. Unlike the interactive commands, the mutations print 
+     * nothing, and each run of consecutive {@code add} or {@code remove} 
+     * commands is applied in bulk via {@link AutocompleteEngine#addAll} or 
+     * {@link AutocompleteEngine#removeAll} just before the next command of 
+     * another kind. Only the results of the queries and the errors, which do 
+     * not stop the batch, are printed. The output stream is flushed at the 
+     * end.
+     * 
+     * @param reader the source of the commands.
+     * @return the summary of the batch.
+     * @throws IOException if reading the commands fails.
+     */
+    public BatchStatistics processBatch(BufferedReader reader) 
+            throws IOException {
+        Objects.requireNonNull(reader, "The reader is null.");
+        long startTime = System.nanoTime();
+        PendingMutations pendingMutations = new PendingMutations();
+        long commandCount = 0L;
+        long queryCount = 0L;
+        long errorCount = 0L;
+        String line;
+        
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            
+            if (line.isEmpty()) {
+                continue;
+            }
+            
+            commandCount++;
+            String[] tokens = line.split("\\s+");
+            
+            if (tokens.length == 2 
+                    && (tokens[0].equals(CommandNames.ADD_STRING) 
+                     || tokens[0].equals(CommandNames.REMOVE_STRING))) {
+                pendingMutations.add(tokens[0], tokens[1]);
+                continue;
+            }
+            
+            pendingMutations.apply();
+            
+            try {
+                processCommand(tokens);
+                queryCount++;
+            } catch (RuntimeException ex) {
+                out.println("ERROR: " + ex.getMessage());
+                errorCount++;
+            }
+        }
+        
+        pendingMutations.apply();
+        out.flush();
+        return new BatchStatistics(commandCount, 
+                                   pendingMutations.addedCount, 
+                                   pendingMutations.removedCount, 
+                                   queryCount, 
+                                   errorCount + pendingMutations.errorCount, 
+                                   System.nanoTime() - startTime);
+    }
+    
     public void processCommand(String[] tokens) {
         switch (tokens.length) {
             case 1:
@@ -70,7 +152,7 @@ public class Application {
     }
     
     private List<String> getAllStrings() {
-        List<String> list = prefixTree.autocomplete("");
+        List<String> list = engine.autocomplete("");
         Collections.<String>sort(list);
         return list;
     }
@@ -115,6 +197,75 @@ public class Application {
         }
     }
     
+    /**
+     * This class collects a run of consecutive {@code add} or {@code remove}
+     * commands of a batch.
+     */
+    private final class PendingMutations {
+        
+        private final List<String> strings = new ArrayList<>();
+        private String commandName;
+        long addedCount;
+        long removedCount;
+        long errorCount;
+        
+        void add(String commandName, String s) {
+            if (!commandName.equals(this.commandName)) {
+                apply();
+                this.commandName = commandName;
+            }
+            
+            strings.add(s);
+        }
+        
+        void apply() {
+            int sizeBefore = engine.size();
+            
+            try {
+                applyInBulk();
+            } catch (IllegalArgumentException ex) {
+                // The engine rejected a string, such as one outside the 
+                // alphabet of a prefix tree, midway. Redo the run one string
+                // at a time; the strings already applied are no-ops now:
+                applyEach(sizeBefore);
+            }
+            
+            strings.clear();
+            commandName = null;
+        }
+        
+        private void applyInBulk() {
+            if (CommandNames.ADD_STRING.equals(commandName)) {
+                addedCount += engine.addAll(strings);
+            } else if (CommandNames.REMOVE_STRING.equals(commandName)) {
+                removedCount += engine.removeAll(strings);
+            }
+        }
+        
+        private void applyEach(int sizeBefore) {
+            boolean adding = CommandNames.ADD_STRING.equals(commandName);
+            
+            for (String s : strings) {
+                try {
+                    if (adding) {
+                        engine.add(s);
+                    } else {
+                        engine.remove(s);
+                    }
+                } catch (IllegalArgumentException ex) {
+                    out.println("ERROR: " + ex.getMessage());
+                    errorCount++;
+                }
+            }
+            
+            if (adding) {
+                addedCount += engine.size() - sizeBefore;
+            } else {
+                removedCount += sizeBefore - engine.size();
+            }
+        }
+    }
+    
     private void checkInputStringNotNull(String s) {
         Objects.requireNonNull(s, "The input string is null.");
     }
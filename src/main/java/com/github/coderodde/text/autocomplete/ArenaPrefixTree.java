@@ -0,0 +1,374 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements a prefix tree whose nodes are not objects but indices
+ * into parallel primitive arrays. Each node takes three {@code int}s, a
+ * {@code char} and a {@code boolean}, about 15 bytes, and the whole tree is a
+ * handful of arrays no matter how many nodes it has, so the garbage collector
+ * has next to nothing to trace. The children of a node form a singly-linked
+ * sibling list sorted by label, so the strings are iterated in lexicographic
+ * order. The removed nodes are recycled through a free list.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class ArenaPrefixTree implements AutocompleteEngine {
+    
+    private static final int NIL = -1;
+    private static final int ROOT = 0;
+    private static final int INITIAL_CAPACITY = 64;
+    
+    // The node arena. The free nodes are chained through 'nextSibling':
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] parent;
+    private char[] labels;
+    private boolean[] representsString;
+    
+    // The number of the nodes ever allocated, the free ones included:
+    private int nodeCount;
+    private int freeList;
+    private int size;
+    private int modCount;
+    
+    public ArenaPrefixTree() {
+        initialize();
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this tree, that is, 
+     * by its arena arrays, the free and the spare slots included. Runs in 
+     * constant time.
+     *
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        int capacity = labels.length;
+        return MemoryFootprint.objectSize(4 * Integer.BYTES, 5)
+                + 3 * MemoryFootprint.arraySize(capacity, Integer.BYTES)
+                + MemoryFootprint.arraySize(capacity, Character.BYTES)
+                + MemoryFootprint.arraySize(capacity, 1);
+    }
+    
+    @Override
+    public void clear() {
+        initialize();
+        size = 0;
+        modCount++;
+    }
+    
+    @Override
+    public boolean add(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int node = ROOT;
+        
+        for (int i = 0, len = s.length(); i < len; ++i) {
+            char ch = s.charAt(i);
+            int previous = NIL;
+            int child = firstChild[node];
+            
+            while (child != NIL && labels[child] < ch) {
+                previous = child;
+                child = nextSibling[child];
+            }
+            
+            if (child == NIL || labels[child] != ch) {
+                // Insert a new child between 'previous' and 'child':
+                int newChild = allocateNode(ch, node);
+                nextSibling[newChild] = child;
+                
+                if (previous == NIL) {
+                    firstChild[node] = newChild;
+                } else {
+                    nextSibling[previous] = newChild;
+                }
+                
+                child = newChild;
+            }
+            
+            node = child;
+        }
+        
+        if (representsString[node]) {
+            // The input string is already present in this tree:
+            return false;
+        }
+        
+        representsString[node] = true;
+        size++;
+        modCount++;
+        return true;
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int node = getPrefixNode(s);
+        return node != NIL && representsString[node];
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int node = getPrefixNode(s);
+        
+        if (node == NIL || !representsString[node]) {
+            return false;
+        }
+        
+        representsString[node] = false;
+        size--;
+        modCount++;
+        
+        // Free the chain of nodes that no longer lead to any string:
+        while (node != ROOT
+                && firstChild[node] == NIL
+                && !representsString[node]) {
+            int parentNode = parent[node];
+            unlinkChild(parentNode, node);
+            freeNode(node);
+            node = parentNode;
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix) {
+        return autocomplete(prefix, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns at most {@code limit} strings starting with {@code prefix} in
+     * lexicographic order.
+     *
+     * @param prefix the prefix of the requested strings.
+     * @param limit  the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        
+        int prefixNodeEnd = getPrefixNode(prefix);
+        
+        if (prefixNodeEnd == NIL || limit == 0) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator =
+                new ArenaPrefixTreeIterator(prefixNodeEnd, prefix);
+        
+        while (autocompleteStrings.size() < limit && iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns an iterator over the strings in lexicographic order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new ArenaPrefixTreeIterator(ROOT, "");
+    }
+    
+    private void initialize() {
+        firstChild = new int[INITIAL_CAPACITY];
+        nextSibling = new int[INITIAL_CAPACITY];
+        parent = new int[INITIAL_CAPACITY];
+        labels = new char[INITIAL_CAPACITY];
+        representsString = new boolean[INITIAL_CAPACITY];
+        freeList = NIL;
+        nodeCount = 0;
+        allocateNode('\0', NIL);
+    }
+    
+    private int allocateNode(char label, int parentNode) {
+        int node;
+        
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = nextSibling[node];
+        } else {
+            if (nodeCount == labels.length) {
+                grow();
+            }
+            
+            node = nodeCount++;
+        }
+        
+        firstChild[node] = NIL;
+        nextSibling[node] = NIL;
+        parent[node] = parentNode;
+        labels[node] = label;
+        representsString[node] = false;
+        return node;
+    }
+    
+    private void freeNode(int node) {
+        parent[node] = NIL;
+        nextSibling[node] = freeList;
+        freeList = node;
+    }
+    
+    private void grow() {
+        int newCapacity = 2 * labels.length;
+        firstChild = Arrays.copyOf(firstChild, newCapacity);
+        nextSibling = Arrays.copyOf(nextSibling, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        labels = Arrays.copyOf(labels, newCapacity);
+        representsString = Arrays.copyOf(representsString, newCapacity);
+    }
+    
+    private void unlinkChild(int parentNode, int child) {
+        if (firstChild[parentNode] == child) {
+            firstChild[parentNode] = nextSibling[child];
+            return;
+        }
+        
+        int previous = firstChild[parentNode];
+        
+        while (nextSibling[previous] != child) {
+            previous = nextSibling[previous];
+        }
+        
+        nextSibling[previous] = nextSibling[child];
+    }
+    
+    private int getChild(int node, char ch) {
+        int child = firstChild[node];
+        
+        // The sibling lists are sorted, so the scan may stop early:
+        while (child != NIL && labels[child] < ch) {
+            child = nextSibling[child];
+        }
+        
+        return child != NIL && labels[child] == ch ? child : NIL;
+    }
+    
+    private int getPrefixNode(String s) {
+        int node = ROOT;
+        
+        for (int i = 0, len = s.length(); i < len && node != NIL; ++i) {
+            node = getChild(node, s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses a subtree in preorder by following the child,
+     * sibling and parent links, so it needs no stack.
+     */
+    private final class ArenaPrefixTreeIterator implements Iterator<String> {
+        
+        private final int expectedModCount =
+                ArenaPrefixTree.this.modCount;
+        private final StringBuilder stringBuilder;
+        private final int startNode;
+        private int node;
+        private String nextString;
+        private boolean computed;
+        
+        ArenaPrefixTreeIterator(int startNode, String prefix) {
+            this.stringBuilder = new StringBuilder(prefix);
+            this.startNode = startNode;
+            this.node = startNode;
+            
+            if (representsString[startNode]) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            checkForComodification();
+            
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (node != NIL) {
+                if (firstChild[node] != NIL) {
+                    node = firstChild[node];
+                    stringBuilder.append(labels[node]);
+                } else {
+                    // Climb up to the first ancestor with a next sibling:
+                    while (node != startNode && nextSibling[node] == NIL) {
+                        node = parent[node];
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    if (node == startNode) {
+                        node = NIL;
+                        return;
+                    }
+                    
+                    node = nextSibling[node];
+                    stringBuilder.setCharAt(stringBuilder.length() - 1,
+                                            labels[node]);
+                }
+                
+                if (representsString[node]) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void checkForComodification() {
+            if (ArenaPrefixTree.this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
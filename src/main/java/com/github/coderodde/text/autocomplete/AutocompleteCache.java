@@ -0,0 +1,121 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements a bounded cache of autocomplete results, evicting the
+ * least recently used prefix when full. A result computed with a limit
+ * answers all the queries with smaller limits, and also the queries with
+ * larger limits if it holds fewer strings than its limit, that is, all the
+ * completions. Not thread-safe: even a lookup modifies the recency order and
+ * the statistics.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+final class AutocompleteCache {
+    
+    private static final class Entry {
+        final List<String> strings;
+        final int limit;
+        
+        Entry(List<String> strings, int limit) {
+            this.strings = strings;
+            this.limit = limit;
+        }
+        
+        boolean answers(int limit) {
+            return strings.size() < this.limit || strings.size() >= limit;
+        }
+    }
+    
+    private final Map<String, Entry> entryMap;
+    private final int capacity;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+    
+    AutocompleteCache(int capacity) {
+        this.capacity = capacity;
+        this.entryMap = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> e) {
+                if (size() > AutocompleteCache.this.capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Returns a copy of at most {@code limit} cached completions of
+     * {@code prefix}, or {@code null} if the cache cannot answer the query.
+     */
+    List<String> get(String prefix, int limit) {
+        Entry entry = entryMap.get(prefix);
+        
+        if (entry == null || !entry.answers(limit)) {
+            missCount++;
+            return null;
+        }
+        
+        hitCount++;
+        int length = Math.min(limit, entry.strings.size());
+        return new ArrayList<>(entry.strings.subList(0, length));
+    }
+    
+    void put(String prefix, int limit, List<String> strings) {
+        entryMap.put(prefix, new Entry(new ArrayList<>(strings), limit));
+    }
+    
+    /**
+     * Drops the results of all the prefixes of {@code s}, which are the only
+     * ones affected by adding or removing {@code s}.
+     */
+    void invalidate(String s) {
+        if (entryMap.isEmpty()) {
+            return;
+        }
+        
+        if (entryMap.size() <= s.length()) {
+            Iterator<String> iterator = entryMap.keySet().iterator();
+            
+            while (iterator.hasNext()) {
+                if (s.startsWith(iterator.next())) {
+                    iterator.remove();
+                    invalidationCount++;
+                }
+            }
+        } else {
+            for (int length = 0; length <= s.length(); ++length) {
+                if (entryMap.remove(s.substring(0, length)) != null) {
+                    invalidationCount++;
+                }
+            }
+        }
+    }
+    
+    void invalidateAll() {
+        invalidationCount += entryMap.size();
+        entryMap.clear();
+    }
+    
+    CacheStatistics getStatistics() {
+        return new CacheStatistics(capacity,
+                                   entryMap.size(),
+                                   hitCount,
+                                   missCount,
+                                   evictionCount,
+                                   invalidationCount);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This interface specifies the operations shared by all the mutable
+ * autocomplete implementations, so that the callers may pick one at runtime.
+ * The order of the completions is up to the implementation.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public interface AutocompleteEngine extends Iterable<String> {
+    
+    int size();
+    
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+    
+    void clear();
+    
+    boolean add(String s);
+    
+    /**
+     * Adds all the strings in {@code strings}. The implementations that can
+     * load a batch faster than one string at a time override this method.
+     *
+     * @param strings the strings to add.
+     * @return the number of the strings that were not present.
+     */
+    default int addAll(Iterable<String> strings) {
+        int added = 0;
+        
+        for (String s : strings) {
+            if (add(s)) {
+                added++;
+            }
+        }
+        
+        return added;
+    }
+    
+    boolean contains(String s);
+    
+    boolean remove(String s);
+    
+    /**
+     * Removes all the strings in {@code strings}.
+     * 
+     * @param strings the strings to remove.
+     * @return the number of the strings that were present.
+     */
+    default int removeAll(Iterable<String> strings) {
+        int removed = 0;
+        
+        for (String s : strings) {
+            if (remove(s)) {
+                removed++;
+            }
+        }
+        
+        return removed;
+    }
+    
+    /**
+     * Returns all the stored strings starting with {@code prefix}.
+     *
+     * @param prefix the prefix of the requested strings.
+     * @return the list of the completions.
+     */
+    List<String> autocomplete(String prefix);
+    
+    /**
+     * Returns at most {@code limit} strings starting with {@code prefix}. The
+     * implementations that can stop the search early override this method.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @param limit  the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    default List<String> autocomplete(String prefix, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        
+        List<String> autocompleteStrings = autocomplete(prefix);
+        
+        if (autocompleteStrings.size() > limit) {
+            autocompleteStrings = 
+                    new ArrayList<>(autocompleteStrings.subList(0, limit));
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this engine.
+     *
+     * @return the estimated size in bytes.
+     */
+    long memoryFootprint();
+}
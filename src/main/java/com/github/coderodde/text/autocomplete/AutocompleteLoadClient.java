@@ -0,0 +1,306 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a load generator for {@link AutocompleteServer}. It
+ * opens a number of connections, each driven by its own thread, and keeps
+ * sending batches of pipelined requests on each of them: a batch is written
+ * at once, and the next one is sent after all the responses to the previous
+ * have arrived. The latency of a request is the time from sending its batch
+ * to receiving its response.
+ *
+ * <p>The workload mimics the users typing: most requests complete a short
+ * prefix of a known string with a limit, and the rest look up, add or remove
+ * a known string. The strings must be non-empty and contain no whitespace,
+ * since the protocol could not carry them otherwise.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class AutocompleteLoadClient {
+    
+    private static final int COMPLETION_LIMIT = 10;
+    private static final int MAXIMUM_PREFIX_LENGTH = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    /**
+     * This class holds the outcome of a load test.
+     */
+    public static final class Result {
+        
+        private final long requestCount;
+        private final long errorCount;
+        private final long durationNanos;
+        private final Histogram latencies;
+        
+        Result(long requestCount,
+               long errorCount,
+               long durationNanos,
+               Histogram latencies) {
+            this.requestCount = requestCount;
+            this.errorCount = errorCount;
+            this.durationNanos = durationNanos;
+            this.latencies = latencies;
+        }
+        
+        public long getRequestCount() {
+            return requestCount;
+        }
+        
+        /**
+         * Returns the number of the requests answered with {@code ERROR}.
+         *
+         * @return the number of the failed requests.
+         */
+        public long getErrorCount() {
+            return errorCount;
+        }
+        
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+        
+        /**
+         * Returns the histogram of the request latencies in nanoseconds.
+         *
+         * @return the latency histogram.
+         */
+        public Histogram getLatencies() {
+            return latencies;
+        }
+        
+        /**
+         * Returns the number of the requests answered per second.
+         *
+         * @return the throughput.
+         */
+        public double getThroughput() {
+            return durationNanos == 0L ?
+                    0.0 :
+                    requestCount * 1e9 / durationNanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format(
+                    "requests: %d, errors: %d, throughput: %.0f requests/s, "
+                            + "latency in us: p50: %.1f, p90: %.1f, "
+                            + "p99: %.1f, p99.9: %.1f, max: %.1f",
+                    requestCount,
+                    errorCount,
+                    getThroughput(),
+                    latencies.getValueAtPercentile(50.0) / 1e3,
+                    latencies.getValueAtPercentile(90.0) / 1e3,
+                    latencies.getValueAtPercentile(99.0) / 1e3,
+                    latencies.getValueAtPercentile(99.9) / 1e3,
+                    latencies.getMaximum() / 1e3);
+        }
+    }
+    
+    private final InetSocketAddress address;
+    private final int connectionCount;
+    private final int pipelineDepth;
+    
+    public AutocompleteLoadClient(InetSocketAddress address,
+                                  int connectionCount,
+                                  int pipelineDepth) {
+        this.address = Objects.requireNonNull(address, "The address is null.");
+        
+        if (connectionCount < 1) {
+            throw new IllegalArgumentException(
+                    "Non-positive connection count: " + connectionCount);
+        }
+        
+        if (pipelineDepth < 1) {
+            throw new IllegalArgumentException(
+                    "Non-positive pipeline depth: " + pipelineDepth);
+        }
+        
+        this.connectionCount = connectionCount;
+        this.pipelineDepth = pipelineDepth;
+    }
+    
+    /**
+     * Adds all the {@code strings} to the server over a single connection.
+     *
+     * @param strings the strings to add.
+     * @throws IOException if the communication fails.
+     */
+    public void load(String[] strings) throws IOException {
+        try (Socket socket = connect()) {
+            Writer writer = getWriter(socket);
+            BufferedReader reader = getReader(socket);
+            
+            for (int i = 0; i < strings.length; i += LOAD_BATCH_SIZE) {
+                int batchEnd = Math.min(strings.length, i + LOAD_BATCH_SIZE);
+                
+                for (int j = i; j < batchEnd; ++j) {
+                    writer.write("add " + strings[j] + "\n");
+                }
+                
+                writer.flush();
+                
+                for (int j = i; j < batchEnd; ++j) {
+                    readResponse(reader);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Runs the workload built from {@code strings} for
+     * {@code durationMillis} milliseconds.
+     *
+     * @param strings        the strings to build the requests from.
+     * @param durationMillis the duration of the test in milliseconds.
+     * @return the outcome of the test.
+     * @throws IOException if the communication fails.
+     */
+    public Result run(String[] strings, long durationMillis)
+            throws IOException {
+        if (strings.length == 0) {
+            throw new IllegalArgumentException("No strings to query.");
+        }
+        
+        Histogram latencies = new Histogram();
+        LongAdder requestCount = new LongAdder();
+        LongAdder errorCount = new LongAdder();
+        ExecutorService executor =
+                Executors.newFixedThreadPool(connectionCount);
+        List<Future<Void>> futures = new ArrayList<>(connectionCount);
+        long startTime = System.nanoTime();
+        long deadline = startTime + durationMillis * 1_000_000L;
+        
+        try {
+            for (int i = 0; i < connectionCount; ++i) {
+                Random random = new Random(i);
+                futures.add(executor.submit(() -> {
+                    runConnection(strings,
+                                  random,
+                                  deadline,
+                                  latencies,
+                                  requestCount,
+                                  errorCount);
+                    return null;
+                }));
+            }
+            
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("A connection failed.", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return new Result(requestCount.sum(),
+                          errorCount.sum(),
+                          System.nanoTime() - startTime,
+                          latencies);
+    }
+    
+    private void runConnection(String[] strings,
+                               Random random,
+                               long deadline,
+                               Histogram latencies,
+                               LongAdder requestCount,
+                               LongAdder errorCount) throws IOException {
+        try (Socket socket = connect()) {
+            Writer writer = getWriter(socket);
+            BufferedReader reader = getReader(socket);
+            
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < pipelineDepth; ++i) {
+                    writer.write(createRequest(strings, random));
+                }
+                
+                long sendTime = System.nanoTime();
+                writer.flush();
+                
+                for (int i = 0; i < pipelineDepth; ++i) {
+                    if (readResponse(reader).startsWith("ERROR")) {
+                        errorCount.increment();
+                    }
+                    
+                    latencies.record(System.nanoTime() - sendTime);
+                }
+                
+                requestCount.add(pipelineDepth);
+            }
+        }
+    }
+    
+    private static String createRequest(String[] strings, Random random) {
+        String s = strings[random.nextInt(strings.length)];
+        int coin = random.nextInt(100);
+        
+        if (coin < 80) {
+            int prefixLength = Math.min(s.length(),
+                                        1 + random.nextInt(
+                                                MAXIMUM_PREFIX_LENGTH));
+            return "complete " + s.substring(0, prefixLength) + " "
+                    + COMPLETION_LIMIT + "\n";
+        } else if (coin < 90) {
+            return "contains " + s + "\n";
+        } else if (coin < 95) {
+            return "add " + s + "\n";
+        } else {
+            return "remove " + s + "\n";
+        }
+    }
+    
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(address);
+        return socket;
+    }
+    
+    private static Writer getWriter(Socket socket) throws IOException {
+        return new BufferedWriter(
+                new OutputStreamWriter(socket.getOutputStream(),
+                                       StandardCharsets.UTF_8),
+                1 << 16);
+    }
+    
+    private static BufferedReader getReader(Socket socket) throws IOException {
+        return new BufferedReader(
+                new InputStreamReader(socket.getInputStream(),
+                                      StandardCharsets.UTF_8),
+                1 << 16);
+    }
+    
+    private static String readResponse(BufferedReader reader)
+            throws IOException {
+        String response = reader.readLine();
+        
+        if (response == null) {
+            throw new IOException("The server closed the connection.");
+        }
+        
+        return response;
+    }
+}
@@ -0,0 +1,228 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class collects the operation metrics of an autocomplete data 
+ * structure: the latency histograms of {@code add}, {@code contains}, 
+ * {@code remove} and {@code autocomplete}, the histogram of the 
+ * autocomplete result sizes, and the autocomplete calls slower than a 
+ * threshold. The recording methods are thread-safe and never block. The 
+ * structures record into an instance only when one is attached to them, so 
+ * the metrics cost a single {@code null} check per operation otherwise.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class AutocompleteMetrics implements AutocompleteMetricsMXBean {
+    
+    /**
+     * The default threshold of a slow autocomplete call in nanoseconds.
+     */
+    public static final long DEFAULT_SLOW_AUTOCOMPLETE_THRESHOLD = 1_000_000L;
+    
+    private final Histogram addLatencies = new Histogram();
+    private final Histogram containsLatencies = new Histogram();
+    private final Histogram removeLatencies = new Histogram();
+    private final Histogram autocompleteLatencies = new Histogram();
+    private final Histogram autocompleteResultSizes = new Histogram();
+    private final LongAdder slowAutocompleteCount = new LongAdder();
+    private final long slowAutocompleteThreshold;
+    private volatile String lastSlowAutocompletePrefix;
+    private volatile StructureStatistics structureStatistics;
+    
+    public AutocompleteMetrics() {
+        this(DEFAULT_SLOW_AUTOCOMPLETE_THRESHOLD);
+    }
+    
+    /**
+     * Constructs the metrics counting the autocomplete calls that take longer
+     * than {@code slowAutocompleteThreshold} nanoseconds as slow.
+     * 
+     * @param slowAutocompleteThreshold the threshold in nanoseconds.
+     */
+    public AutocompleteMetrics(long slowAutocompleteThreshold) {
+        if (slowAutocompleteThreshold < 0L) {
+            throw new IllegalArgumentException(
+                    "Negative threshold: " + slowAutocompleteThreshold);
+        }
+        
+        this.slowAutocompleteThreshold = slowAutocompleteThreshold;
+    }
+    
+    public Histogram getAddLatencies() {
+        return addLatencies;
+    }
+    
+    public Histogram getContainsLatencies() {
+        return containsLatencies;
+    }
+    
+    public Histogram getRemoveLatencies() {
+        return removeLatencies;
+    }
+    
+    public Histogram getAutocompleteLatencies() {
+        return autocompleteLatencies;
+    }
+    
+    public Histogram getAutocompleteResultSizes() {
+        return autocompleteResultSizes;
+    }
+    
+    /**
+     * Returns the latest structural snapshot.
+     * 
+     * @return the snapshot, or {@code null} if none was taken yet.
+     */
+    public StructureStatistics getStructureStatistics() {
+        return structureStatistics;
+    }
+    
+    /**
+     * Registers this instance in the platform MBean server under 
+     * {@code name}.
+     * 
+     * @param name the object name.
+     * @throws JMException if the registration fails.
+     */
+    public void registerMBean(ObjectName name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+    }
+    
+    @Override
+    public long getAddCount() {
+        return addLatencies.getCount();
+    }
+    
+    @Override
+    public long getAddLatency99thPercentile() {
+        return addLatencies.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getContainsCount() {
+        return containsLatencies.getCount();
+    }
+    
+    @Override
+    public long getContainsLatency99thPercentile() {
+        return containsLatencies.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getRemoveCount() {
+        return removeLatencies.getCount();
+    }
+    
+    @Override
+    public long getRemoveLatency99thPercentile() {
+        return removeLatencies.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getAutocompleteCount() {
+        return autocompleteLatencies.getCount();
+    }
+    
+    @Override
+    public long getAutocompleteLatencyMedian() {
+        return autocompleteLatencies.getValueAtPercentile(50.0);
+    }
+    
+    @Override
+    public long getAutocompleteLatency99thPercentile() {
+        return autocompleteLatencies.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getAutocompleteLatencyMaximum() {
+        return autocompleteLatencies.getMaximum();
+    }
+    
+    @Override
+    public double getAutocompleteResultSizeMean() {
+        return autocompleteResultSizes.getMean();
+    }
+    
+    @Override
+    public long getAutocompleteResultSize99thPercentile() {
+        return autocompleteResultSizes.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getSlowAutocompleteCount() {
+        return slowAutocompleteCount.sum();
+    }
+    
+    @Override
+    public String getLastSlowAutocompletePrefix() {
+        return lastSlowAutocompletePrefix;
+    }
+    
+    @Override
+    public int getStringCount() {
+        StructureStatistics statistics = structureStatistics;
+        return statistics == null ? 0 : statistics.getStringCount();
+    }
+    
+    @Override
+    public long getNodeCount() {
+        StructureStatistics statistics = structureStatistics;
+        return statistics == null ? 0L : statistics.getNodeCount();
+    }
+    
+    @Override
+    public double getAverageFanOut() {
+        StructureStatistics statistics = structureStatistics;
+        return statistics == null ? 0.0 : statistics.getAverageFanOut();
+    }
+    
+    @Override
+    public int getMaximumDepth() {
+        StructureStatistics statistics = structureStatistics;
+        return statistics == null ? 0 : statistics.getMaximumDepth();
+    }
+    
+    @Override
+    public String toString() {
+        return "[add: " + addLatencies
+                + ", contains: " + containsLatencies
+                + ", remove: " + removeLatencies
+                + ", autocomplete: " + autocompleteLatencies
+                + ", result sizes: " + autocompleteResultSizes
+                + ", slow autocompletes: " + getSlowAutocompleteCount()
+                + ", structure: " + structureStatistics
+                + "]";
+    }
+    
+    void recordAdd(long nanos) {
+        addLatencies.record(nanos);
+    }
+    
+    void recordContains(long nanos) {
+        containsLatencies.record(nanos);
+    }
+    
+    void recordRemove(long nanos) {
+        removeLatencies.record(nanos);
+    }
+    
+    void recordAutocomplete(String prefix, long nanos, int resultSize) {
+        autocompleteLatencies.record(nanos);
+        autocompleteResultSizes.record(resultSize);
+        
+        if (nanos > slowAutocompleteThreshold) {
+            slowAutocompleteCount.increment();
+            lastSlowAutocompletePrefix = prefix;
+        }
+    }
+    
+    void setStructureStatistics(StructureStatistics structureStatistics) {
+        this.structureStatistics = structureStatistics;
+    }
+}
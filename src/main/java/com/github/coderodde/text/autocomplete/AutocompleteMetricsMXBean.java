@@ -0,0 +1,50 @@
+package com.github.coderodde.text.autocomplete;
+
+/**
+ * This interface defines the JMX view of {@link AutocompleteMetrics}. The 
+ * latencies are in nanoseconds. The structural attributes come from the 
+ * latest {@link StructureStatistics} snapshot, and are zero before the first
+ * one.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public interface AutocompleteMetricsMXBean {
+    
+    long getAddCount();
+    
+    long getAddLatency99thPercentile();
+    
+    long getContainsCount();
+    
+    long getContainsLatency99thPercentile();
+    
+    long getRemoveCount();
+    
+    long getRemoveLatency99thPercentile();
+    
+    long getAutocompleteCount();
+    
+    long getAutocompleteLatencyMedian();
+    
+    long getAutocompleteLatency99thPercentile();
+    
+    long getAutocompleteLatencyMaximum();
+    
+    double getAutocompleteResultSizeMean();
+    
+    long getAutocompleteResultSize99thPercentile();
+    
+    long getSlowAutocompleteCount();
+    
+    String getLastSlowAutocompletePrefix();
+    
+    int getStringCount();
+    
+    long getNodeCount();
+    
+    double getAverageFanOut();
+    
+    int getMaximumDepth();
+}
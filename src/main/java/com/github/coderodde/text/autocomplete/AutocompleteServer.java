@@ -0,0 +1,397 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a non-blocking server exposing an
+ * {@link AutocompleteEngine} over a line-oriented TCP protocol. A single
+ * thread multiplexes all the connections via a {@link Selector} and runs the
+ * commands itself, so the engine needs not be thread-safe.
+ *
+ * <p>Each request is a line of UTF-8 text terminated by {@code \n}, its
+ * tokens separated by whitespace:
+ * <pre>
+ *   add &lt;string&gt;
+ *   contains &lt;string&gt;
+ *   remove &lt;string&gt;
+ *   complete [&lt;prefix&gt; [&lt;limit&gt;]]
+ *   size
+ * </pre>
+ * Each request gets exactly one response line, in the order of the requests:
+ * {@code true} or {@code false} for {@code add}, {@code contains} and
+ * {@code remove}, the number of the completions followed by the completions
+ * for {@code complete}, the number of the strings for {@code size}, and
+ * {@code ERROR <message>} for a malformed request or one the engine failed
+ * on. A last request not terminated by {@code \n} is answered once the
+ * client shuts down its output.
+ *
+ * <p>The clients may pipeline their requests, that is, send many of them
+ * without waiting for the responses. The server answers all the complete
+ * lines received in one read with a single write, and stops reading from a
+ * client whose unsent responses exceed a megabyte until they drain.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class AutocompleteServer implements Runnable, Closeable {
+    
+    /**
+     * The maximum length of a request line in bytes.
+     */
+    public static final int MAXIMUM_LINE_LENGTH = 1 << 16;
+    
+    private static final int MAXIMUM_PENDING_OUTPUT = 1 << 20;
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+    
+    private final AutocompleteEngine engine;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private volatile boolean closed;
+    
+    // Whether run() owns the selector and releases it; guarded by this:
+    private boolean running;
+    
+    /**
+     * Binds a server to the loopback address at {@code port}. The server
+     * accepts no connections before {@link #run()} is called.
+     *
+     * @param engine the engine to serve.
+     * @param port   the port to listen on, or zero for any free port.
+     * @throws IOException if the port cannot be bound.
+     */
+    public AutocompleteServer(AutocompleteEngine engine, int port)
+            throws IOException {
+        this(engine, new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                           port));
+    }
+    
+    public AutocompleteServer(AutocompleteEngine engine,
+                              InetSocketAddress address) throws IOException {
+        this.engine = Objects.requireNonNull(engine, "The engine is null.");
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        
+        try {
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            serverChannel.close();
+            selector.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Returns the port this server listens on.
+     *
+     * @return the local port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+    
+    /**
+     * Serves the clients until {@link #close()} is called. Returns at once if
+     * this server is already closed.
+     *
+     * @throws IllegalStateException if this server is already running.
+     */
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            
+            if (running) {
+                throw new IllegalStateException("The server is running.");
+            }
+            
+            running = true;
+        }
+        
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> iterator =
+                        selector.selectedKeys().iterator();
+                
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    
+                    try {
+                        processKey(key);
+                    } catch (IOException ex) {
+                        // Only the offending client is dropped:
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("The selector failed.", ex);
+        } finally {
+            synchronized (this) {
+                closed = true;
+            }
+            
+            closeAll();
+        }
+    }
+    
+    /**
+     * Stops this server and closes all its connections. If {@link #run()} is
+     * active, returns immediately and lets that thread do the closing;
+     * otherwise unbinds the port itself. Closing a closed server has no
+     * effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            
+            closed = true;
+            
+            if (running) {
+                selector.wakeup();
+                return;
+            }
+        }
+        
+        closeAll();
+    }
+    
+    private void processKey(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        
+        Connection connection = (Connection) key.attachment();
+        
+        if (key.isReadable()) {
+            read(key, connection);
+        }
+        
+        if (key.isValid() && key.isWritable()) {
+            write(key, connection);
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        
+        if (channel == null) {
+            return;
+        }
+        
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+    
+    private void read(SelectionKey key, Connection connection)
+            throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer input = connection.input;
+        
+        if (channel.read(input) < 0) {
+            // The client will send no more requests:
+            connection.endOfInput = true;
+        }
+        
+        input.flip();
+        StringBuilder responses = new StringBuilder();
+        int lineStart = input.position();
+        
+        for (int i = lineStart, limit = input.limit(); i < limit; ++i) {
+            if (input.get(i) == '\n') {
+                String line = new String(input.array(),
+                                         lineStart,
+                                         i - lineStart,
+                                         StandardCharsets.UTF_8);
+                processLine(line, responses);
+                lineStart = i + 1;
+            }
+        }
+        
+        if (connection.endOfInput && lineStart < input.limit()) {
+            // The last request lacks its line terminator:
+            String line = new String(input.array(),
+                                     lineStart,
+                                     input.limit() - lineStart,
+                                     StandardCharsets.UTF_8);
+            
+            if (!line.isBlank()) {
+                processLine(line, responses);
+            }
+            
+            lineStart = input.limit();
+        }
+        
+        input.position(lineStart);
+        input.compact();
+        
+        if (!input.hasRemaining()) {
+            responses.append("ERROR Line too long.\n");
+            connection.endOfInput = true;
+        }
+        
+        if (responses.length() > 0) {
+            connection.append(
+                    responses.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        
+        write(key, connection);
+    }
+    
+    private void write(SelectionKey key, Connection connection)
+            throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        
+        if (connection.output.hasRemaining()) {
+            channel.write(connection.output);
+        }
+        
+        int pending = connection.output.remaining();
+        
+        if (pending == 0 && connection.endOfInput) {
+            closeConnection(key);
+            return;
+        }
+        
+        int interestOps = 0;
+        
+        if (pending > 0) {
+            interestOps |= SelectionKey.OP_WRITE;
+        }
+        
+        if (pending <= MAXIMUM_PENDING_OUTPUT && !connection.endOfInput) {
+            interestOps |= SelectionKey.OP_READ;
+        }
+        
+        key.interestOps(interestOps);
+    }
+    
+    private void processLine(String line, StringBuilder responses) {
+        String[] tokens = line.trim().split("\\s+");
+        
+        try {
+            switch (tokens[0]) {
+                case "add"      -> responses.append(
+                                           engine.add(getString(tokens)));
+                case "contains" -> responses.append(
+                                           engine.contains(getString(tokens)));
+                case "remove"   -> responses.append(
+                                           engine.remove(getString(tokens)));
+                case "complete" -> appendCompletions(tokens, responses);
+                case "size"     -> responses.append(engine.size());
+                default -> throw new IllegalArgumentException(
+                        "Unknown command: " + line.trim());
+            }
+        } catch (RuntimeException ex) {
+            // Fail only this request, not the server and all its clients:
+            responses.append("ERROR ")
+                     .append(ex.getMessage() != null ? 
+                             ex.getMessage() : 
+                             ex.getClass().getSimpleName());
+        }
+        
+        responses.append('\n');
+    }
+    
+    private void appendCompletions(String[] tokens, StringBuilder responses) {
+        if (tokens.length > 3) {
+            throw new IllegalArgumentException(
+                    "Bad command: " + String.join(" ", tokens));
+        }
+        
+        String prefix = tokens.length > 1 ? tokens[1] : "";
+        int limit = Integer.MAX_VALUE;
+        
+        if (tokens.length == 3) {
+            // NumberFormatException is an IllegalArgumentException:
+            limit = Integer.parseInt(tokens[2]);
+        }
+        
+        List<String> completions = engine.autocomplete(prefix, limit);
+        responses.append(completions.size());
+        
+        for (String completion : completions) {
+            responses.append(' ').append(completion);
+        }
+    }
+    
+    private static String getString(String[] tokens) {
+        if (tokens.length != 2) {
+            throw new IllegalArgumentException(
+                    "Bad command: " + String.join(" ", tokens));
+        }
+        
+        return tokens[1];
+    }
+    
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            // Nothing to do, the channel is unusable anyway.
+        }
+    }
+    
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            closeConnection(key);
+        }
+        
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            // Nothing to do, the server is shutting down.
+        }
+    }
+    
+    private static final class Connection {
+        
+        final ByteBuffer input = ByteBuffer.allocate(MAXIMUM_LINE_LENGTH);
+        
+        // The unsent responses, ready to be written:
+        ByteBuffer output = EMPTY_BUFFER;
+        boolean endOfInput;
+        
+        void append(byte[] bytes) {
+            if (!output.hasRemaining()) {
+                output = ByteBuffer.wrap(bytes);
+                return;
+            }
+            
+            ByteBuffer newOutput =
+                    ByteBuffer.allocate(output.remaining() + bytes.length);
+            newOutput.put(output).put(bytes).flip();
+            output = newOutput;
+        }
+    }
+}
@@ -14,40 +14,175 @@ import java.util.Set;
  * @version 1.6 (Jan 26, 2022)
  * @since 1.6 (Jan 26, 2022)
  */
-public class AutocompleteSystem implements Iterable<String> {
+public class AutocompleteSystem implements AutocompleteEngine {
 
     private final Set<String> stringSet = new HashSet<>();
     
+    // The optional operation metrics:
+    private AutocompleteMetrics metrics;
+    
+    /**
+     * Attaches {@code metrics} to this system, so that the latencies of 
+     * {@code add}, {@code contains}, {@code remove} and {@code autocomplete}
+     * are recorded in it. Passing {@code null} detaches the metrics.
+     * 
+     * @param metrics the metrics to record into, or {@code null}.
+     */
+    public void setMetrics(AutocompleteMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    public AutocompleteMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Returns the snapshot of the shape of this system, also publishing it to
+     * the attached metrics. There are no nodes, so each string counts as one.
+     * 
+     * @return the structure snapshot.
+     */
+    public StructureStatistics computeStructureStatistics() {
+        long totalStringLength = 0L;
+        int maximumLength = 0;
+        
+        for (String s : stringSet) {
+            totalStringLength += s.length();
+            maximumLength = Math.max(maximumLength, s.length());
+        }
+        
+        int size = stringSet.size();
+        StructureStatistics statistics = 
+                new StructureStatistics(
+                        size, 
+                        size, 
+                        0.0, 
+                        maximumLength, 
+                        size == 0 ? 0.0 : (double) totalStringLength / size);
+        
+        if (metrics != null) {
+            metrics.setStructureStatistics(statistics);
+        }
+        
+        return statistics;
+    }
+    
+    @Override
     public boolean add(String s) {
-        return stringSet.add(s);
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return stringSet.add(s);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean added = stringSet.add(s);
+        metrics.recordAdd(System.nanoTime() - startTime);
+        return added;
     }
 
+    @Override
     public boolean contains(String s) {
-        return stringSet.contains(s);
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return stringSet.contains(s);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean contains = stringSet.contains(s);
+        metrics.recordContains(System.nanoTime() - startTime);
+        return contains;
     }
     
+    @Override
     public boolean remove(String s) {
-        return stringSet.remove(s);
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return stringSet.remove(s);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean removed = stringSet.remove(s);
+        metrics.recordRemove(System.nanoTime() - startTime);
+        return removed;
     }
     
+    @Override
     public List<String> autocomplete(String prefix) {
-        List<String> list = new ArrayList<>();
+        AutocompleteMetrics metrics = this.metrics;
         
-        for (String s : stringSet) {
-            if (s.startsWith(prefix)) {
-                list.add(s);
-            }
+        if (metrics == null) {
+            return collectCompletions(prefix);
         }
         
+        long startTime = System.nanoTime();
+        List<String> list = collectCompletions(prefix);
+        metrics.recordAutocomplete(prefix, 
+                                   System.nanoTime() - startTime, 
+                                   list.size());
         return list;
     }
     
+    @Override
     public int size() {
         return stringSet.size();
     }
 
+    @Override
+    public void clear() {
+        stringSet.clear();
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this system: the 
+     * backing {@link java.util.HashMap} with its table and entries, and the 
+     * strings, which this system retains in full. The table is assumed to 
+     * be as small as the default load factor allows, but it never shrinks 
+     * after removals, so the estimate may be low in that case.
+     * 
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        int size = stringSet.size();
+        long footprint = MemoryFootprint.objectSize(0, 2)
+                + MemoryFootprint.objectSize(0, 1)
+                + MemoryFootprint.objectSize(3 * Integer.BYTES + Float.BYTES, 
+                                             4)
+                + size * MemoryFootprint.objectSize(Integer.BYTES, 3);
+        
+        if (size > 0) {
+            // The smallest power of two, at least 16, holding 'size' entries 
+            // within the load factor of 0.75:
+            int minimumLength = (int) Math.ceil(size / 0.75);
+            int tableLength = 
+                    Math.max(16, Integer.highestOneBit(minimumLength - 1) << 1);
+            footprint += MemoryFootprint.referenceArraySize(tableLength);
+        }
+        
+        for (String s : stringSet) {
+            footprint += MemoryFootprint.stringSize(s);
+        }
+        
+        return footprint;
+    }
+
     @Override
     public Iterator<String> iterator() {
         return stringSet.iterator();
     }
+    
+    private List<String> collectCompletions(String prefix) {
+        List<String> list = new ArrayList<>();
+        
+        for (String s : stringSet) {
+            if (s.startsWith(prefix)) {
+                list.add(s);
+            }
+        }
+        
+        return list;
+    }
 }
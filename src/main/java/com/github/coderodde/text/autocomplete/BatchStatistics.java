@@ -0,0 +1,96 @@
+package com.github.coderodde.text.autocomplete;
+
+/**
+ * This class holds the summary of a batch of commands run by
+ * {@link Application#processBatch(java.io.BufferedReader)}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class BatchStatistics {
+    
+    private final long commandCount;
+    private final long addedCount;
+    private final long removedCount;
+    private final long queryCount;
+    private final long errorCount;
+    private final long durationNanos;
+    
+    BatchStatistics(long commandCount,
+                    long addedCount,
+                    long removedCount,
+                    long queryCount,
+                    long errorCount,
+                    long durationNanos) {
+        this.commandCount = commandCount;
+        this.addedCount = addedCount;
+        this.removedCount = removedCount;
+        this.queryCount = queryCount;
+        this.errorCount = errorCount;
+        this.durationNanos = durationNanos;
+    }
+    
+    /**
+     * Returns the number of the commands read, the malformed ones included.
+     *
+     * @return the number of the commands.
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+    
+    /**
+     * Returns the number of the added strings that were not present.
+     *
+     * @return the number of the added strings.
+     */
+    public long getAddedCount() {
+        return addedCount;
+    }
+    
+    /**
+     * Returns the number of the removed strings that were present.
+     *
+     * @return the number of the removed strings.
+     */
+    public long getRemovedCount() {
+        return removedCount;
+    }
+    
+    public long getQueryCount() {
+        return queryCount;
+    }
+    
+    public long getErrorCount() {
+        return errorCount;
+    }
+    
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+    
+    /**
+     * Returns the number of the commands run per second.
+     *
+     * @return the throughput.
+     */
+    public double getThroughput() {
+        return durationNanos == 0L ? 0.0 : commandCount * 1e9 / durationNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("[commands: %d, added: %d, removed: %d, "
+                                + "queries: %d, errors: %d, "
+                                + "duration: %d ms, "
+                                + "throughput: %.0f commands/s]",
+                             commandCount,
+                             addedCount,
+                             removedCount,
+                             queryCount,
+                             errorCount,
+                             durationNanos / 1_000_000L,
+                             getThroughput());
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.Arrays;
+
+/**
+ * This class implements an immutable bit vector supporting constant time
+ * {@code rank} and logarithmic time {@code select} queries. The rank
+ * directory stores one cumulative count per block of
+ * {@link #WORDS_PER_BLOCK} words, that is, 1/16 of the space of the bits
+ * themselves.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+final class BitVector {
+    
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    
+    private final long[] words;
+    private final int length;
+    
+    // blockRanks[b] is the number of one bits before the block 'b':
+    private final int[] blockRanks;
+    private final int numberOfOnes;
+    
+    private BitVector(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+        this.blockRanks =
+                new int[(words.length + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK];
+        
+        int rank = 0;
+        
+        for (int i = 0; i < words.length; ++i) {
+            if (i % WORDS_PER_BLOCK == 0) {
+                blockRanks[i / WORDS_PER_BLOCK] = rank;
+            }
+            
+            rank += Long.bitCount(words[i]);
+        }
+        
+        this.numberOfOnes = rank;
+    }
+    
+    int length() {
+        return length;
+    }
+    
+    long memoryFootprint() {
+        return MemoryFootprint.objectSize(2 * Integer.BYTES, 2)
+                + MemoryFootprint.arraySize(words.length, Long.BYTES)
+                + MemoryFootprint.arraySize(blockRanks.length, Integer.BYTES);
+    }
+    
+    boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+    
+    /**
+     * Returns the number of one bits in the range {@code [0, index)}.
+     *
+     * @param index the end of the range, exclusive.
+     * @return the number of one bits before {@code index}.
+     */
+    int rank1(int index) {
+        if (index >= length) {
+            return numberOfOnes;
+        }
+        
+        int wordIndex = index >>> 6;
+        int rank = blockRanks[wordIndex / WORDS_PER_BLOCK];
+        
+        for (int i = wordIndex - wordIndex % WORDS_PER_BLOCK;
+                i < wordIndex;
+                ++i) {
+            rank += Long.bitCount(words[i]);
+        }
+        
+        int bitIndex = index & 63;
+        
+        if (bitIndex != 0) {
+            rank += Long.bitCount(words[wordIndex] & (-1L >>> (64 - bitIndex)));
+        }
+        
+        return rank;
+    }
+    
+    /**
+     * Returns the position of the {@code k}th zero bit, counting from zero.
+     *
+     * @param k the rank of the requested zero bit.
+     * @return the position of the zero bit.
+     */
+    int select0(int k) {
+        // Find the last block with at most 'k' zeros before it:
+        int low = 0;
+        int high = blockRanks.length - 1;
+        
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            
+            if (middle * BITS_PER_BLOCK - blockRanks[middle] <= k) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        
+        k -= low * BITS_PER_BLOCK - blockRanks[low];
+        
+        for (int i = low * WORDS_PER_BLOCK; ; ++i) {
+            long inverted = ~words[i];
+            int zeros = Long.bitCount(inverted);
+            
+            if (k < zeros) {
+                for (; k > 0; --k) {
+                    inverted &= inverted - 1;
+                }
+                
+                return i * Long.SIZE + Long.numberOfTrailingZeros(inverted);
+            }
+            
+            k -= zeros;
+        }
+    }
+    
+    static final class Builder {
+        
+        private long[] words = new long[8];
+        private int length;
+        
+        Builder add(boolean bit) {
+            if (length == words.length * Long.SIZE) {
+                words = Arrays.copyOf(words, 2 * words.length);
+            }
+            
+            if (bit) {
+                words[length >>> 6] |= 1L << length;
+            }
+            
+            length++;
+            return this;
+        }
+        
+        BitVector build() {
+            int numberOfWords = (length + Long.SIZE - 1) / Long.SIZE;
+            return new BitVector(Arrays.copyOf(words, numberOfWords), length);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.coderodde.text.autocomplete;
+
+/**
+ * This class holds the statistics of an autocomplete result cache at some
+ * moment.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class CacheStatistics {
+    
+    private final int capacity;
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+    
+    CacheStatistics(int capacity,
+                    int size,
+                    long hitCount,
+                    long missCount,
+                    long evictionCount,
+                    long invalidationCount) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+    }
+    
+    /**
+     * Returns the maximum number of cached prefixes.
+     *
+     * @return the capacity of the cache.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Returns the number of cached prefixes.
+     *
+     * @return the size of the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    public long getHitCount() {
+        return hitCount;
+    }
+    
+    public long getMissCount() {
+        return missCount;
+    }
+    
+    /**
+     * Returns the number of results dropped to make room for new ones.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    /**
+     * Returns the number of results dropped because a string under their
+     * prefix was added or removed.
+     *
+     * @return the number of invalidations.
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+    
+    /**
+     * Returns the ratio of the hits to all the lookups, or zero if there were
+     * no lookups.
+     *
+     * @return the hit rate.
+     */
+    public double getHitRate() {
+        long lookupCount = hitCount + missCount;
+        return lookupCount == 0L ? 0.0 : (double) hitCount / lookupCount;
+    }
+    
+    @Override
+    public String toString() {
+        return "[capacity: " + capacity
+                + ", size: " + size
+                + ", hits: " + hitCount
+                + ", misses: " + missCount
+                + ", evictions: " + evictionCount
+                + ", invalidations: " + invalidationCount
+                + "]";
+    }
+}
@@ -0,0 +1,444 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a map from primitive {@code char} keys to object
+ * values. It is used as the child container of the prefix tree nodes. While
+ * the number of mappings is small, the keys are kept in a sorted
+ * {@code char} array paired with a value array and looked up via binary
+ * search. When the fan-out grows beyond {@link #MAXIMUM_SORTED_SIZE}, the map
+ * promotes itself to an open addressing hash table with linear probing, and
+ * demotes itself back to the sorted arrays once the size drops to
+ * {@link #DEMOTION_SIZE}.
+ *
+ * <p>A map constructed with an {@link Alphabet} is dense instead: its value
+ * array has a slot for each character of the alphabet, at the index of the
+ * character, so that a lookup is a direct array access. It never changes its
+ * representation and accepts no keys outside the alphabet.
+ *
+ * @param <V> the value type.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+final class CharMap<V> {
+
+    /**
+     * The maximum number of mappings held in the sorted array representation.
+     */
+    static final int MAXIMUM_SORTED_SIZE = 8;
+
+    /**
+     * The size at which a hash table representation turns back into sorted
+     * arrays. Smaller than {@link #MAXIMUM_SORTED_SIZE} in order to not
+     * oscillate between the two representations.
+     */
+    static final int DEMOTION_SIZE = 4;
+
+    private static final int INITIAL_SORTED_CAPACITY = 2;
+    private static final int INITIAL_HASH_TABLE_CAPACITY = 32;
+
+    private char[] keys;
+    private Object[] values;
+    private int size;
+    private boolean hashed;
+
+    // Non-null in the dense mode, in which 'keys' is not used:
+    private Alphabet alphabet;
+
+    // The bit shift used by the Fibonacci hashing in the hash table mode.
+    private int shift;
+
+    CharMap() {
+        this(INITIAL_SORTED_CAPACITY);
+    }
+
+    CharMap(int expectedSize) {
+        if (expectedSize > MAXIMUM_SORTED_SIZE) {
+            int capacity = tableCapacityFor(expectedSize);
+            keys = new char[capacity];
+            values = new Object[capacity];
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+            hashed = true;
+        } else {
+            expectedSize = Math.max(expectedSize, 1);
+            keys = new char[expectedSize];
+            values = new Object[expectedSize];
+        }
+    }
+
+    /**
+     * Constructs an empty dense map over {@code alphabet}.
+     */
+    CharMap(Alphabet alphabet) {
+        this.alphabet = alphabet;
+        this.values = new Object[alphabet.size()];
+    }
+
+    /**
+     * Constructs a map holding the first {@code size} mappings of the given
+     * arrays, the keys being in ascending order. The arrays are copied and 
+     * sized exactly.
+     */
+    CharMap(char[] sortedKeys, Object[] sortedValues, int size) {
+        this(size);
+        
+        if (hashed) {
+            for (int i = 0; i < size; ++i) {
+                hashPut(sortedKeys[i], sortedValues[i]);
+            }
+        } else {
+            System.arraycopy(sortedKeys, 0, keys, 0, size);
+            System.arraycopy(sortedValues, 0, values, 0, size);
+            this.size = size;
+        }
+    }
+    
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(char key) {
+        if (alphabet != null) {
+            int index = alphabet.indexOf(key);
+            return index >= 0 ? (V) values[index] : null;
+        }
+
+        if (hashed) {
+            int mask = keys.length - 1;
+
+            for (int i = hash(key); ; i = (i + 1) & mask) {
+                Object value = values[i];
+
+                if (value == null) {
+                    return null;
+                }
+
+                if (keys[i] == key) {
+                    return (V) value;
+                }
+            }
+        }
+
+        int index = sortedIndexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @param key   the key.
+     * @param value the non-null value.
+     * @return the previous value or {@code null} if there was none.
+     * @throws IllegalArgumentException if this map is dense and {@code key} 
+     *                                  is not in its alphabet.
+     */
+    @SuppressWarnings("unchecked")
+    V put(char key, V value) {
+        if (alphabet != null) {
+            int index = alphabet.indexOf(key);
+
+            if (index < 0) {
+                throw new IllegalArgumentException(
+                        "The character '" + key + "' is not in the "
+                                + "alphabet \"" + alphabet + "\".");
+            }
+
+            Object old = values[index];
+            values[index] = value;
+
+            if (old == null) {
+                size++;
+            }
+
+            return (V) old;
+        }
+
+        if (hashed) {
+            return (V) hashPut(key, value);
+        }
+
+        int index = sortedIndexOf(key);
+
+        if (index >= 0) {
+            Object old = values[index];
+            values[index] = value;
+            return (V) old;
+        }
+
+        if (size == MAXIMUM_SORTED_SIZE) {
+            promote();
+            return (V) hashPut(key, value);
+        }
+
+        index = -index - 1;
+
+        if (size == keys.length) {
+            int newCapacity = Math.min(2 * keys.length, MAXIMUM_SORTED_SIZE);
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(char key) {
+        if (alphabet != null) {
+            int index = alphabet.indexOf(key);
+
+            if (index < 0 || values[index] == null) {
+                return null;
+            }
+
+            Object old = values[index];
+            values[index] = null;
+            size--;
+            return (V) old;
+        }
+
+        if (hashed) {
+            V old = (V) hashRemove(key);
+
+            if (old != null && size <= DEMOTION_SIZE) {
+                demote();
+            }
+
+            return old;
+        }
+
+        int index = sortedIndexOf(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        Object old = values[index];
+        int numberOfMoved = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, numberOfMoved);
+        System.arraycopy(values, index + 1, values, index, numberOfMoved);
+        values[--size] = null;
+        return (V) old;
+    }
+
+    /**
+     * Returns the number of slots to scan with {@link #keyAt(int)} and
+     * {@link #valueAt(int)}. In the sorted mode, the slots are the mappings in
+     * ascending key order; in the hash table and the dense modes, empty slots
+     * have a {@code null} value.
+     *
+     * @return the number of slots.
+     */
+    int slotCount() {
+        return alphabet != null || hashed ? values.length : size;
+    }
+
+    char keyAt(int slot) {
+        return alphabet != null ? alphabet.charAt(slot) : keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * Returns the estimated heap size of this map and its arrays, excluding
+     * the values.
+     *
+     * @return the estimated size in bytes.
+     */
+    long memoryFootprint() {
+        long footprint = MemoryFootprint.objectSize(2 * Integer.BYTES + 1, 3)
+                + MemoryFootprint.referenceArraySize(values.length);
+
+        // The dense mode shares the arrays of the alphabet:
+        return keys == null ?
+               footprint :
+               footprint + MemoryFootprint.arraySize(keys.length, 
+                                                     Character.BYTES);
+    }
+
+    /**
+     * Returns {@code true} if the slots are visited in ascending key order.
+     *
+     * @return {@code true} if in the sorted or the dense mode.
+     */
+    boolean isSorted() {
+        return !hashed;
+    }
+
+    private int sortedIndexOf(char key) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleKey = keys[middle];
+
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        return -(low + 1);
+    }
+
+    private int hash(char key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private Object hashPut(char key, Object value) {
+        int mask = keys.length - 1;
+        int i = hash(key);
+
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                Object old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        // Keep the load factor at most 1/2:
+        if (++size > keys.length / 2) {
+            rehash(2 * keys.length);
+        }
+
+        return null;
+    }
+
+    private Object hashRemove(char key) {
+        int mask = keys.length - 1;
+        int i = hash(key);
+
+        while (true) {
+            Object value = values[i];
+
+            if (value == null) {
+                return null;
+            }
+
+            if (keys[i] == key) {
+                break;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        Object old = values[i];
+
+        // Backward shift deletion; keeps the probe sequences intact without
+        // tombstones:
+        int gap = i;
+
+        for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]);
+
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+
+        values[gap] = null;
+        size--;
+        return old;
+    }
+
+    private void promote() {
+        char[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldSize = size;
+
+        keys = new char[INITIAL_HASH_TABLE_CAPACITY];
+        values = new Object[INITIAL_HASH_TABLE_CAPACITY];
+        shift = 32 - Integer.numberOfTrailingZeros(INITIAL_HASH_TABLE_CAPACITY);
+        size = 0;
+        hashed = true;
+
+        for (int i = 0; i < oldSize; ++i) {
+            hashPut(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void demote() {
+        char[] newKeys = new char[MAXIMUM_SORTED_SIZE];
+        Object[] newValues = new Object[MAXIMUM_SORTED_SIZE];
+        int index = 0;
+
+        for (int i = 0; i < keys.length; ++i) {
+            if (values[i] != null) {
+                newKeys[index] = keys[i];
+                newValues[index] = values[i];
+                index++;
+            }
+        }
+
+        // Restore the sorted order by insertion sort; at most
+        // DEMOTION_SIZE elements:
+        for (int i = 1; i < index; ++i) {
+            char key = newKeys[i];
+            Object value = newValues[i];
+            int j = i - 1;
+
+            for (; j >= 0 && newKeys[j] > key; --j) {
+                newKeys[j + 1] = newKeys[j];
+                newValues[j + 1] = newValues[j];
+            }
+
+            newKeys[j + 1] = key;
+            newValues[j + 1] = value;
+        }
+
+        keys = newKeys;
+        values = newValues;
+        hashed = false;
+    }
+
+    private void rehash(int newCapacity) {
+        char[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new char[newCapacity];
+        values = new Object[newCapacity];
+        shift = 32 - Integer.numberOfTrailingZeros(newCapacity);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldValues[i] != null) {
+                hashPut(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int tableCapacityFor(int expectedSize) {
+        int capacity = INITIAL_HASH_TABLE_CAPACITY;
+
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+
+        return capacity;
+    }
+}
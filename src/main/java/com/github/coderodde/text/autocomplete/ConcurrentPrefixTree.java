@@ -0,0 +1,402 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class implements a thread-safe prefix tree. The queries never block:
+ * each node publishes its children in an immutable, sorted child table through
+ * a {@code volatile} field, and the string flags are {@code volatile} as well.
+ * The mutations are serialized by a single lock and made visible by exactly
+ * one {@code volatile} write each, which is also their linearization point:
+ * <ul>
+ *   <li>{@code add} either sets the string flag of an existing node, or
+ *       builds the whole missing suffix off the tree and then publishes it by
+ *       replacing the child table of its attachment node;</li>
+ *   <li>{@code remove} clears the string flag, after which the nodes no longer
+ *       leading to any string are unlinked.</li>
+ * </ul>
+ * The unlinked nodes are never attached again, so a reader holding a
+ * reference to one of them sees it without any strings. {@code contains} is
+ * linearizable; {@code autocomplete} and the iterators are weakly consistent,
+ * that is, they return the strings present at some moment during the
+ * traversal and never throw
+ * {@link java.util.ConcurrentModificationException}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class ConcurrentPrefixTree implements AutocompleteEngine {
+    
+    private static final class ChildTable {
+        
+        static final ChildTable EMPTY = new ChildTable(new char[0],
+                                                       new Node[0]);
+        
+        final char[] keys;
+        final Node[] nodes;
+        
+        ChildTable(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+        
+        Node get(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? nodes[index] : null;
+        }
+        
+        ChildTable with(char key, Node node) {
+            int index = -Arrays.binarySearch(keys, key) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newNodes = new Node[nodes.length + 1];
+            
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            newKeys[index] = key;
+            newNodes[index] = node;
+            System.arraycopy(keys,
+                             index,
+                             newKeys,
+                             index + 1,
+                             keys.length - index);
+            System.arraycopy(nodes,
+                             index,
+                             newNodes,
+                             index + 1,
+                             nodes.length - index);
+            
+            return new ChildTable(newKeys, newNodes);
+        }
+        
+        ChildTable without(char key) {
+            if (keys.length == 1) {
+                return EMPTY;
+            }
+            
+            int index = Arrays.binarySearch(keys, key);
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newNodes = new Node[nodes.length - 1];
+            
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            System.arraycopy(keys,
+                             index + 1,
+                             newKeys,
+                             index,
+                             newKeys.length - index);
+            System.arraycopy(nodes,
+                             index + 1,
+                             newNodes,
+                             index,
+                             newNodes.length - index);
+            
+            return new ChildTable(newKeys, newNodes);
+        }
+    }
+    
+    private static final class Node {
+        volatile ChildTable children = ChildTable.EMPTY;
+        volatile boolean representsString;
+        
+        // Accessed only while holding the write lock:
+        Node parent;
+    }
+    
+    private final Node root = new Node();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile int size;
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this tree: the nodes
+     * and their child tables. The write lock is not included. The traversal 
+     * is weakly consistent, like the iterators.
+     *
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        long nodeSize = MemoryFootprint.objectSize(1, 2);
+        long tableSize = MemoryFootprint.objectSize(0, 2);
+        long footprint = MemoryFootprint.objectSize(Integer.BYTES, 2);
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        
+        while (!nodeStack.isEmpty()) {
+            Node node = nodeStack.pop();
+            ChildTable table = node.children;
+            footprint += nodeSize;
+            
+            if (table == ChildTable.EMPTY) {
+                continue;
+            }
+            
+            footprint += tableSize
+                    + MemoryFootprint.arraySize(table.keys.length, 
+                                                Character.BYTES)
+                    + MemoryFootprint.referenceArraySize(table.nodes.length);
+            
+            for (Node child : table.nodes) {
+                nodeStack.push(child);
+            }
+        }
+        
+        return footprint;
+    }
+    
+    @Override
+    public void clear() {
+        writeLock.lock();
+        
+        try {
+            root.representsString = false;
+            root.children = ChildTable.EMPTY;
+            size = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean add(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        writeLock.lock();
+        
+        try {
+            Node node = root;
+            int index = 0;
+            
+            for (int len = s.length(); index < len; ++index) {
+                Node child = node.children.get(s.charAt(index));
+                
+                if (child == null) {
+                    break;
+                }
+                
+                node = child;
+            }
+            
+            if (index == s.length()) {
+                if (node.representsString) {
+                    // The input string is already present in this tree:
+                    return false;
+                }
+                
+                node.representsString = true;
+                size++;
+                return true;
+            }
+            
+            // Build the missing suffix off the tree, then publish it:
+            Node suffixRoot = new Node();
+            Node suffixNode = suffixRoot;
+            
+            for (int i = index + 1; i < s.length(); ++i) {
+                Node child = new Node();
+                child.parent = suffixNode;
+                suffixNode.children =
+                        new ChildTable(new char[]{ s.charAt(i) },
+                                       new Node[]{ child });
+                suffixNode = child;
+            }
+            
+            suffixNode.representsString = true;
+            suffixRoot.parent = node;
+            node.children = node.children.with(s.charAt(index), suffixRoot);
+            size++;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = getPrefixNode(s);
+        return node != null && node.representsString;
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        writeLock.lock();
+        
+        try {
+            Node node = getPrefixNode(s);
+            
+            if (node == null || !node.representsString) {
+                return false;
+            }
+            
+            node.representsString = false;
+            size--;
+            
+            // Unlink the nodes that no longer lead to any string:
+            int charIndex = s.length() - 1;
+            
+            while (node.parent != null
+                    && node.children.keys.length == 0
+                    && !node.representsString) {
+                Node parent = node.parent;
+                parent.children = 
+                        parent.children.without(s.charAt(charIndex--));
+                node.parent = null;
+                node = parent;
+            }
+            
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        Node prefixNodeEnd = getPrefixNode(prefix);
+        
+        if (prefixNodeEnd == null) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator =
+                new ConcurrentPrefixTreeIterator(prefixNodeEnd, prefix);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns a weakly consistent iterator over the strings in lexicographic
+     * order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new ConcurrentPrefixTreeIterator(root, "");
+    }
+    
+    private Node getPrefixNode(String s) {
+        Node node = root;
+        
+        for (int i = 0, len = s.length(); i < len && node != null; ++i) {
+            node = node.children.get(s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses a subtree depth-first. Each stack frame holds
+     * the child table read once when the frame was pushed, so the traversal
+     * is never disturbed by the concurrent writers.
+     */
+    private static final class ConcurrentPrefixTreeIterator
+            implements Iterator<String> {
+        
+        private final StringBuilder stringBuilder;
+        private ChildTable[] tableStack = new ChildTable[8];
+        private int[] indexStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        ConcurrentPrefixTreeIterator(Node startNode, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            push(startNode);
+            
+            if (startNode.representsString) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                ChildTable table = tableStack[top];
+                int index = indexStack[top];
+                
+                if (index == table.keys.length) {
+                    // The node on top is exhausted. Backtrack:
+                    tableStack[top] = null;
+                    
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                indexStack[top] = index + 1;
+                Node child = table.nodes[index];
+                stringBuilder.append(table.keys[index]);
+                push(child);
+                
+                if (child.representsString) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(Node node) {
+            if (depth == tableStack.length) {
+                tableStack = Arrays.copyOf(tableStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+            }
+            
+            tableStack[depth] = node.children;
+            indexStack[depth] = 0;
+            depth++;
+        }
+    }
+}
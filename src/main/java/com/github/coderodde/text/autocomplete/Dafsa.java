@@ -0,0 +1,438 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class implements a read-only, minimal deterministic acyclic finite
+ * state automaton (https://en.wikipedia.org/wiki/Deterministic_acyclic_finite_state_automaton).
+ * Unlike a prefix tree, it shares the common suffixes of the strings as well
+ * as the common prefixes, which pays off for word lists with many inflected
+ * forms or host names. Instances are built with {@link Builder} from sorted
+ * input.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class Dafsa implements Iterable<String> {
+    
+    private static final char[] NO_LABELS = new char[0];
+    private static final State[] NO_TARGETS = new State[0];
+    
+    private static final class State {
+        
+        boolean isFinal;
+        
+        // The sorted transition labels and the respective target states:
+        char[] labels = NO_LABELS;
+        State[] targets = NO_TARGETS;
+        int transitionCount;
+        
+        State get(char label) {
+            int index = Arrays.binarySearch(labels, 0, transitionCount, label);
+            return index >= 0 ? targets[index] : null;
+        }
+        
+        void addTransition(char label, State target) {
+            if (transitionCount == labels.length) {
+                int newCapacity = Math.max(2, 2 * transitionCount);
+                labels = Arrays.copyOf(labels, newCapacity);
+                targets = Arrays.copyOf(targets, newCapacity);
+            }
+            
+            labels[transitionCount] = label;
+            targets[transitionCount] = target;
+            transitionCount++;
+        }
+        
+        void trimToSize() {
+            if (labels.length != transitionCount) {
+                labels = Arrays.copyOf(labels, transitionCount);
+                targets = Arrays.copyOf(targets, transitionCount);
+            }
+        }
+        
+        // Two states are equivalent if they have the same finality and the
+        // same transitions to the same (already canonical) target states:
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            
+            State other = (State) o;
+            
+            if (isFinal != other.isFinal
+                    || transitionCount != other.transitionCount) {
+                return false;
+            }
+            
+            for (int i = 0; i < transitionCount; ++i) {
+                if (labels[i] != other.labels[i]
+                        || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        @Override
+        public int hashCode() {
+            int hash = isFinal ? 1 : 0;
+            
+            for (int i = 0; i < transitionCount; ++i) {
+                hash = 31 * hash + labels[i];
+                hash = 31 * hash + System.identityHashCode(targets[i]);
+            }
+            
+            return hash;
+        }
+    }
+    
+    /**
+     * This class builds a {@link Dafsa} incrementally from strings given in
+     * ascending order (Daciuk et al., 2000). Whenever a string leaves the path
+     * of the previous string, the states of the abandoned part of that path
+     * can no longer change, so they are minimized right away: each one is
+     * replaced by an equivalent state from the register of canonical states,
+     * or registered itself.
+     */
+    public static final class Builder {
+        
+        private final Map<State, State> register = new HashMap<>();
+        private final State root = new State();
+        
+        // path[i] is the state reached by the first 'i' characters of the
+        // previous string:
+        private State[] path = new State[]{ root };
+        private String previousString;
+        private int size;
+        private boolean built;
+        
+        /**
+         * Adds {@code s} to the automaton under construction. Adding the
+         * previous string again has no effect.
+         *
+         * @param s the string to add.
+         * @return this builder.
+         * @throws IllegalArgumentException if {@code s} precedes the previous
+         *                                  string.
+         */
+        public Builder add(String s) {
+            Objects.requireNonNull(s, "The input string is null.");
+            
+            if (built) {
+                throw new IllegalStateException(
+                        "The automaton is already built.");
+            }
+            
+            if (previousString != null) {
+                int cmp = previousString.compareTo(s);
+                
+                if (cmp == 0) {
+                    return this;
+                }
+                
+                if (cmp > 0) {
+                    throw new IllegalArgumentException(
+                            "The input is not sorted: \"" + s
+                                    + "\" after \"" + previousString + "\".");
+                }
+            }
+            
+            int commonLength = previousString == null ?
+                    0 : commonPrefixLength(previousString, s);
+            
+            minimize(commonLength);
+            
+            if (path.length < s.length() + 1) {
+                path = Arrays.copyOf(path, s.length() + 1);
+            }
+            
+            State state = path[commonLength];
+            
+            for (int i = commonLength; i < s.length(); ++i) {
+                State next = new State();
+                state.addTransition(s.charAt(i), next);
+                path[i + 1] = next;
+                state = next;
+            }
+            
+            state.isFinal = true;
+            previousString = s;
+            size++;
+            return this;
+        }
+        
+        public Builder addAll(Iterable<String> strings) {
+            for (String s : strings) {
+                add(s);
+            }
+            
+            return this;
+        }
+        
+        /**
+         * Minimizes the remaining path and returns the automaton. This
+         * builder cannot be used afterwards.
+         *
+         * @return the minimal automaton.
+         */
+        public Dafsa build() {
+            if (built) {
+                throw new IllegalStateException(
+                        "The automaton is already built.");
+            }
+            
+            minimize(0);
+            root.trimToSize();
+            built = true;
+            return new Dafsa(root, size, register.size() + 1);
+        }
+        
+        /**
+         * Replaces or registers the states on the path of the previous
+         * string deeper than {@code depth}, bottom-up.
+         */
+        private void minimize(int depth) {
+            int pathLength =
+                    previousString == null ? 0 : previousString.length();
+            
+            for (int i = pathLength; i > depth; --i) {
+                State state = path[i];
+                State parent = path[i - 1];
+                state.trimToSize();
+                State canonical = register.putIfAbsent(state, state);
+                
+                if (canonical != null) {
+                    // The last transition of 'parent' leads to 'state':
+                    parent.targets[parent.transitionCount - 1] = canonical;
+                }
+                
+                path[i] = null;
+            }
+        }
+        
+        private static int commonPrefixLength(String s1, String s2) {
+            int length = Math.min(s1.length(), s2.length());
+            int i = 0;
+            
+            while (i < length && s1.charAt(i) == s2.charAt(i)) {
+                ++i;
+            }
+            
+            return i;
+        }
+    }
+    
+    private final State root;
+    private final int size;
+    private final int stateCount;
+    
+    private Dafsa(State root, int size, int stateCount) {
+        this.root = root;
+        this.size = size;
+        this.stateCount = stateCount;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this automaton. Each
+     * shared state is counted once.
+     *
+     * @return the estimated size in bytes.
+     */
+    public long memoryFootprint() {
+        long stateSize = MemoryFootprint.objectSize(1 + Integer.BYTES, 2);
+        long footprint = MemoryFootprint.objectSize(2 * Integer.BYTES, 1);
+        Set<State> visited = 
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<State> stateStack = new ArrayDeque<>();
+        visited.add(root);
+        stateStack.push(root);
+        
+        while (!stateStack.isEmpty()) {
+            State state = stateStack.pop();
+            footprint += stateSize;
+            
+            // The empty arrays are shared by all the final states:
+            if (state.labels.length == 0) {
+                continue;
+            }
+            
+            footprint += 
+                    MemoryFootprint.arraySize(state.labels.length,
+                                              Character.BYTES)
+                    + MemoryFootprint.referenceArraySize(state.targets.length);
+            
+            for (int i = 0; i < state.transitionCount; ++i) {
+                if (visited.add(state.targets[i])) {
+                    stateStack.push(state.targets[i]);
+                }
+            }
+        }
+        
+        return footprint;
+    }
+    
+    /**
+     * Returns the number of states in this automaton, the root included.
+     *
+     * @return the number of states.
+     */
+    public int stateCount() {
+        return stateCount;
+    }
+    
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        State state = getPrefixState(s);
+        return state != null && state.isFinal;
+    }
+    
+    public List<String> autocomplete(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        State state = getPrefixState(prefix);
+        
+        if (state == null) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator = new DafsaIterator(state, prefix);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns an iterator over the strings in lexicographic order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new DafsaIterator(root, "");
+    }
+    
+    private State getPrefixState(String s) {
+        State state = root;
+        
+        for (int i = 0, len = s.length(); i < len && state != null; ++i) {
+            state = state.get(s.charAt(i));
+        }
+        
+        return state;
+    }
+    
+    /**
+     * This iterator enumerates the paths of the automaton depth-first. A
+     * shared state is visited once per path leading to it.
+     */
+    private static final class DafsaIterator implements Iterator<String> {
+        
+        private final StringBuilder stringBuilder;
+        private State[] stateStack = new State[8];
+        private int[] indexStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        DafsaIterator(State startState, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            stateStack[0] = startState;
+            depth = 1;
+            
+            if (startState.isFinal) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                State state = stateStack[top];
+                int index = indexStack[top];
+                
+                if (index == state.transitionCount) {
+                    // The state on top is exhausted. Backtrack:
+                    stateStack[top] = null;
+                    
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                indexStack[top] = index + 1;
+                State target = state.targets[index];
+                stringBuilder.append(state.labels[index]);
+                push(target);
+                
+                if (target.isFinal) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(State state) {
+            if (depth == stateStack.length) {
+                stateStack = Arrays.copyOf(stateStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+            }
+            
+            stateStack[depth] = state;
+            indexStack[depth] = 0;
+            depth++;
+        }
+    }
+}
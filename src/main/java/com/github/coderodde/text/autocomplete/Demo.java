@@ -1,9 +1,23 @@
 package com.github.coderodde.text.autocomplete;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 public class Demo {
     
@@ -11,17 +25,207 @@ public class Demo {
     private static final int MAXIMUM_STRING_LENGTH = 5;
     private static final String AUTOCOMPLETE_STRING = "5";
 
+    private static final class DatasetShape {
+        final String name;
+        final int numberOfStrings;
+        final String prefix;
+        final int minimumLength;
+        final int maximumLength;
+        final String alphabet;
+        
+        DatasetShape(String name,
+                     int numberOfStrings,
+                     String prefix,
+                     int minimumLength,
+                     int maximumLength,
+                     String alphabet) {
+            this.name = name;
+            this.numberOfStrings = numberOfStrings;
+            this.prefix = prefix;
+            this.minimumLength = minimumLength;
+            this.maximumLength = maximumLength;
+            this.alphabet = alphabet;
+        }
+        
+        String[] generate(Random random) {
+            String[] strings = new String[numberOfStrings];
+            
+            for (int i = 0; i < strings.length; ++i) {
+                int length = minimumLength 
+                        + random.nextInt(maximumLength - minimumLength + 1);
+                StringBuilder sb = new StringBuilder(prefix);
+                
+                for (int j = 0; j < length; ++j) {
+                    sb.append(alphabet.charAt(
+                            random.nextInt(alphabet.length())));
+                }
+                
+                strings[i] = sb.toString();
+            }
+            
+            return strings;
+        }
+    }
+    
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    
+    private static final DatasetShape[] DATASET_SHAPES = {
+        new DatasetShape("digits, up to 5", 
+                         NUMBER_OF_STRINGS_TO_GENERATE, 
+                         "", 
+                         0, 
+                         MAXIMUM_STRING_LENGTH, 
+                         "0123456789"),
+        new DatasetShape("words, 3-12 letters", 
+                         200_000, 
+                         "", 
+                         3, 
+                         12, 
+                         LETTERS),
+        new DatasetShape("identifiers, 20-40 characters", 
+                         100_000, 
+                         "", 
+                         20, 
+                         40, 
+                         LETTERS + "0123456789"),
+        new DatasetShape("URLs with a common prefix", 
+                         100_000, 
+                         "https://www.example.com/", 
+                         5, 
+                         15, 
+                         LETTERS),
+    };
+    
     public static void main(String[] args) {
         if (args.length > 0 && args[0].trim().equals("benchmark")) {
             benchmark();
+        } else if (args.length > 0 && args[0].trim().equals("footprint")) {
+            footprint();
+        } else if (args.length > 0 && args[0].trim().equals("server")) {
+            runServer(args);
+        } else if (args.length > 0 && args[0].trim().equals("loadtest")) {
+            runLoadTest(args);
+        } else if (args.length > 0 && args[0].trim().equals("batch")) {
+            runBatch(args);
         } else {
-            runDemo();
+            runDemo(createEngine(args.length > 0 ? args[0].trim() : "prefix"));
+        }
+    }
+    
+    /**
+     * Creates the autocomplete engine named {@code name}.
+     * 
+     * @param name the name of the engine.
+     * @return a new, empty engine.
+     */
+    private static AutocompleteEngine createEngine(String name) {
+        return switch (name) {
+            case "prefix"     -> new PrefixTree();
+            case "hashset"    -> new AutocompleteSystem();
+            case "radix"      -> new RadixTree();
+            case "arena"      -> new ArenaPrefixTree();
+            case "concurrent" -> new ConcurrentPrefixTree();
+            case "persistent" -> new PersistentPrefixTree();
+            case "sorted"     -> new SortedStringArray();
+            case "digits"     -> new PrefixTree(Alphabet.DIGITS);
+            default -> throw new IllegalArgumentException(
+                    "Unknown engine: \"" + name + "\". Expected one of: " 
+                            + "prefix, hashset, radix, arena, concurrent, " 
+                            + "persistent, sorted, digits.");
+        };
+    }
+    
+    /**
+     * Serves an engine over the network until killed. The arguments are 
+     * {@code server [port [engine]]}.
+     */
+    private static void runServer(String[] args) {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        String engineName = args.length > 2 ? args[2] : "prefix";
+        
+        try (AutocompleteServer server = 
+                new AutocompleteServer(createEngine(engineName), port)) {
+            System.out.println("Serving a " + engineName 
+                    + " engine on port " + server.getPort() + ".");
+            server.run();
+        } catch (IOException ex) {
+            System.out.println("ERROR: " + ex.getMessage());
         }
     }
     
-    private static void runDemo() {
+    /**
+     * Loads a server running on this host with words, then measures its 
+     * throughput and latency under a mixed workload. The arguments are
+     * {@code loadtest port [connections [pipelineDepth [seconds]]]}.
+     */
+    private static void runLoadTest(String[] args) {
+        if (args.length < 2) {
+            System.out.println(
+                    "Usage: loadtest port " 
+                            + "[connections [pipelineDepth [seconds]]]");
+            return;
+        }
+        
+        int port = Integer.parseInt(args[1]);
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int pipelineDepth = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        
+        String[] strings = DATASET_SHAPES[1].generate(new Random(1255L));
+        AutocompleteLoadClient client = 
+                new AutocompleteLoadClient(
+                        new InetSocketAddress(
+                                InetAddress.getLoopbackAddress(), port), 
+                        connections, 
+                        pipelineDepth);
+        
+        try {
+            long start = System.currentTimeMillis();
+            client.load(strings);
+            long end = System.currentTimeMillis();
+            
+            System.out.println("Loaded " + strings.length + " strings in " 
+                    + (end - start) + " ms.");
+            
+            System.out.println("Running " + connections + " connections, " 
+                    + pipelineDepth + " pipelined requests each, for " 
+                    + seconds + " s...");
+            
+            System.out.println(client.run(strings, seconds * 1000L));
+        } catch (IOException ex) {
+            System.out.println("ERROR: " + ex.getMessage());
+        }
+    }
+    
+    /**
+     * Runs a command file, or the standard input if the file is {@code -} or
+     * missing, with buffered output, and reports the summary to the standard 
+     * error stream. The arguments are {@code batch [file [engine]]}.
+     */
+    private static void runBatch(String[] args) {
+        String fileName = args.length > 1 ? args[1] : "-";
+        String engineName = args.length > 2 ? args[2] : "prefix";
+        PrintStream out = 
+                new PrintStream(
+                        new BufferedOutputStream(
+                                new FileOutputStream(FileDescriptor.out), 
+                                1 << 16), 
+                        false);
+        Application application = 
+                new Application(createEngine(engineName), out);
+        
+        try (BufferedReader reader = fileName.equals("-") ? 
+                new BufferedReader(new InputStreamReader(System.in), 1 << 16) :
+                Files.newBufferedReader(Paths.get(fileName))) {
+            System.err.println(application.processBatch(reader));
+        } catch (IOException ex) {
+            System.err.println("ERROR: " + ex.getMessage());
+        }
+    }
+    
+    private static void runDemo(AutocompleteEngine engine) {
         Scanner scanner = new Scanner(System.in);
-        Application application = new Application();
+        Application application = new Application(engine);
         
         while (true) {
             System.out.print(">>> ");
@@ -237,6 +441,160 @@ public class Demo {
         }
     }
     
+    /**
+     * Reports the estimated and the measured heap footprints of all the 
+     * implementations for each dataset shape. The measured footprint is the 
+     * growth of the used heap after building, so it excludes the input 
+     * strings, which remain referenced by the dataset; the estimate of 
+     * {@link AutocompleteSystem} includes them, since it retains them.
+     */
+    private static void footprint() {
+        for (DatasetShape shape : DATASET_SHAPES) {
+            String[] strings = shape.generate(new Random(1255L));
+            String[] sortedStrings = 
+                    Arrays.stream(strings)
+                          .distinct()
+                          .sorted()
+                          .toArray(String[]::new);
+            long numberOfCharacters = 0L;
+            
+            for (String s : sortedStrings) {
+                numberOfCharacters += s.length();
+            }
+            
+            System.out.println("<<< " + shape.name + ": " 
+                    + sortedStrings.length + " distinct strings, " 
+                    + numberOfCharacters + " characters >>>");
+            
+            System.out.println(
+                    String.format("%-22s %14s %14s %14s %14s", 
+                                  "Implementation", 
+                                  "Estimated", 
+                                  "Measured", 
+                                  "Bytes/string", 
+                                  "Bytes/char"));
+            
+            Footprint footprint = 
+                    new Footprint(sortedStrings.length, numberOfCharacters);
+            
+            footprint.report("PrefixTree", () -> {
+                PrefixTree tree = new PrefixTree();
+                
+                for (String s : strings) {
+                    tree.add(s);
+                }
+                
+                return tree::memoryFootprint;
+            });
+            
+            footprint.report("AutocompleteSystem", () -> {
+                AutocompleteSystem system = new AutocompleteSystem();
+                
+                for (String s : strings) {
+                    system.add(s);
+                }
+                
+                return system::memoryFootprint;
+            });
+            
+            footprint.report("RadixTree", () -> {
+                RadixTree tree = new RadixTree();
+                
+                for (String s : strings) {
+                    tree.add(s);
+                }
+                
+                return tree::memoryFootprint;
+            });
+            
+            footprint.report("ArenaPrefixTree", () -> {
+                ArenaPrefixTree tree = new ArenaPrefixTree();
+                
+                for (String s : strings) {
+                    tree.add(s);
+                }
+                
+                return tree::memoryFootprint;
+            });
+            
+            footprint.report("ConcurrentPrefixTree", () -> {
+                ConcurrentPrefixTree tree = new ConcurrentPrefixTree();
+                
+                for (String s : strings) {
+                    tree.add(s);
+                }
+                
+                return tree::memoryFootprint;
+            });
+            
+            footprint.report("PersistentPrefixTree", () -> {
+                PersistentPrefixTree tree = new PersistentPrefixTree();
+                
+                for (String s : strings) {
+                    tree.add(s);
+                }
+                
+                return tree::memoryFootprint;
+            });
+            
+            footprint.report("SortedStringArray", () -> {
+                SortedStringArray array = new SortedStringArray();
+                array.addAll(Arrays.asList(strings));
+                return array::memoryFootprint;
+            });
+            
+            footprint.report("FrozenPrefixTree", () -> {
+                PrefixTree tree = new PrefixTree();
+                tree.addAllSorted(Arrays.asList(sortedStrings).iterator());
+                return tree.freeze()::memoryFootprint;
+            });
+            
+            footprint.report("Dafsa", () -> {
+                return new Dafsa.Builder()
+                                .addAll(Arrays.asList(sortedStrings))
+                                .build()::memoryFootprint;
+            });
+            
+            System.out.println();
+        }
+    }
+    
+    private static final class Footprint {
+        
+        private final int numberOfStrings;
+        private final long numberOfCharacters;
+        
+        Footprint(int numberOfStrings, long numberOfCharacters) {
+            this.numberOfStrings = numberOfStrings;
+            this.numberOfCharacters = numberOfCharacters;
+        }
+        
+        void report(String name, Supplier<LongSupplier> builder) {
+            long usedHeapBefore = getUsedHeap();
+            LongSupplier footprint = builder.get();
+            long measured = getUsedHeap() - usedHeapBefore;
+            long estimated = footprint.getAsLong();
+            
+            System.out.println(
+                    String.format("%-22s %14d %14d %14.1f %14.2f", 
+                                  name, 
+                                  estimated, 
+                                  measured, 
+                                  (double) estimated / numberOfStrings, 
+                                  (double) estimated / numberOfCharacters));
+        }
+        
+        private static long getUsedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            
+            for (int i = 0; i < 3; ++i) {
+                System.gc();
+            }
+            
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+    
     private static String[] getQueryStrings(String[] strings, Random random) {
         return getQueryStrings(strings, MAXIMUM_STRING_LENGTH, random);
     }
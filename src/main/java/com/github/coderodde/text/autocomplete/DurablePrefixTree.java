@@ -0,0 +1,600 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * This class implements a {@link PrefixTree} persisted in a directory as a
+ * binary snapshot, written by {@link PrefixTree#writeSnapshot}, plus an
+ * append-only write-ahead log of the mutations since the snapshot. Each
+ * mutation is appended to the log before it is applied to the tree. Opening
+ * the directory loads the snapshot and replays the log, so the restart time
+ * depends on the size of the files and not on the source of the strings.
+ *
+ * <p>Each record is handed to the operating system before the mutation
+ * returns, so a crash of the JVM loses no mutations. The log is forced to
+ * the disk after every {@code recordsPerSync} records, on {@link #sync()}
+ * and on {@link #close()}. With {@code recordsPerSync} of one, a mutation
+ * survives a crash of the operating system or a power loss as soon as it
+ * returns; with larger values, the forced writes are batched and up to
+ * {@code recordsPerSync - 1} last mutations may be lost in such a crash;
+ * with zero, flushing the log to the disk is left to the operating system.
+ * A mutation fails only if its record cannot be written. A forced write
+ * failing after that leaves the mutation applied and makes {@link #sync()}
+ * and {@link #close()} throw, since the logged data may be lost.
+ * A record torn by a crash is detected by its checksum and dropped on the
+ * next opening.
+ *
+ * <p>Once the log exceeds the compaction threshold, or on
+ * {@link #compact()}, the log is renamed aside and a fresh one is started.
+ * A background thread then loads the old snapshot, replays the renamed log
+ * into it and atomically replaces the snapshot with the result. It works on
+ * the files alone, so the tree stays available meanwhile. If a compaction
+ * triggered by the threshold cannot be started, the mutation still
+ * succeeds, the failure is reported by {@link #close()}, and the next
+ * mutation tries again. Replaying a log
+ * twice yields the same tree, so a crash at any point of the compaction
+ * leaves the directory consistent.
+ *
+ * <p>This class is not thread-safe, save for the background compaction.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class DurablePrefixTree implements AutocompleteEngine, Closeable {
+    
+    /**
+     * The default size of the log in bytes that triggers a compaction.
+     */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64L << 20;
+    
+    static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+    static final String LOG_FILE_NAME = "wal.log";
+    
+    // The log being compacted into the snapshot:
+    static final String COMPACTED_LOG_FILE_NAME = "wal.old";
+    
+    private static final String TEMPORARY_SNAPSHOT_FILE_NAME = "snapshot.tmp";
+    
+    // The record operations:
+    private static final byte ADD = 1;
+    private static final byte ADD_WITH_WEIGHT = 2;
+    private static final byte REMOVE = 3;
+    private static final byte CLEAR = 4;
+    
+    // The operation, the string length in chars and the checksum. The chars
+    // are stored as UTF-16, like in the snapshot, so that any string,
+    // unpaired surrogates included, is replayed as it was added:
+    private static final int RECORD_OVERHEAD = 1 + 2 * Integer.BYTES;
+    
+    private final Path directory;
+    private final int recordsPerSync;
+    private final long compactionThreshold;
+    private final ExecutorService compactionExecutor;
+    private final PrefixTree prefixTree;
+    private final CRC32 checksum = new CRC32();
+    
+    private FileOutputStream logFileStream;
+    private long logSize;
+    private int unsyncedRecordCount;
+    private IOException syncFailure;
+    private CompletableFuture<Void> compaction =
+            CompletableFuture.completedFuture(null);
+    private boolean closed;
+    
+    /**
+     * Opens the tree stored in {@code directory}, creating the directory if
+     * needed, with the default compaction threshold.
+     *
+     * @param directory      the directory of the files.
+     * @param recordsPerSync the number of the records per forced write, or
+     *                       zero for never forcing them.
+     * @throws IOException if the files cannot be read or are corrupt.
+     */
+    public DurablePrefixTree(Path directory, int recordsPerSync)
+            throws IOException {
+        this(directory, recordsPerSync, DEFAULT_COMPACTION_THRESHOLD);
+    }
+    
+    public DurablePrefixTree(Path directory,
+                             int recordsPerSync,
+                             long compactionThreshold) throws IOException {
+        this.directory = Objects.requireNonNull(directory,
+                                                "The directory is null.");
+        
+        if (recordsPerSync < 0) {
+            throw new IllegalArgumentException(
+                    "Negative records per sync: " + recordsPerSync);
+        }
+        
+        if (compactionThreshold < 1L) {
+            throw new IllegalArgumentException(
+                    "Non-positive compaction threshold: "
+                            + compactionThreshold);
+        }
+        
+        this.recordsPerSync = recordsPerSync;
+        this.compactionThreshold = compactionThreshold;
+        
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(TEMPORARY_SNAPSHOT_FILE_NAME));
+        this.prefixTree = loadSnapshot(directory);
+        
+        Path compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+        Path logPath = directory.resolve(LOG_FILE_NAME);
+        
+        if (Files.exists(compactedLogPath)) {
+            replay(compactedLogPath, prefixTree);
+        }
+        
+        if (Files.exists(logPath)) {
+            long validLength = replay(logPath, prefixTree);
+            
+            if (validLength < Files.size(logPath)) {
+                // Drop the torn tail, so that new records follow valid ones:
+                try (FileChannel channel =
+                        FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+        }
+        
+        this.compactionExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "prefix-tree-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        openLog();
+    }
+    
+    @Override
+    public int size() {
+        return prefixTree.size();
+    }
+    
+    @Override
+    public void clear() {
+        appendRecord(CLEAR, null, PrefixTree.DEFAULT_WEIGHT);
+        prefixTree.clear();
+        afterRecord();
+    }
+    
+    @Override
+    public boolean add(String s) {
+        if (prefixTree.contains(s)) {
+            return false;
+        }
+        
+        appendRecord(ADD, s, PrefixTree.DEFAULT_WEIGHT);
+        boolean added = prefixTree.add(s);
+        afterRecord();
+        return added;
+    }
+    
+    /**
+     * Adds {@code s} with the weight {@code weight}, or updates its weight if
+     * already present.
+     *
+     * @param s      the string to add.
+     * @param weight the weight of the string.
+     * @return {@code true} if {@code s} was not present.
+     */
+    public boolean add(String s, long weight) {
+        Objects.requireNonNull(s, "The input string is null.");
+        
+        if (weight == PrefixTree.NO_WEIGHT) {
+            // Validate before logging, lest the replay fail on the record:
+            throw new IllegalArgumentException(
+                    "The weight " + weight + " is reserved.");
+        }
+        
+        if (prefixTree.getWeight(s) == weight) {
+            // Log only real changes, like add(String) and remove(String):
+            return false;
+        }
+        
+        appendRecord(ADD_WITH_WEIGHT, s, weight);
+        boolean added = prefixTree.add(s, weight);
+        afterRecord();
+        return added;
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        return prefixTree.contains(s);
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        if (!prefixTree.contains(s)) {
+            return false;
+        }
+        
+        appendRecord(REMOVE, s, PrefixTree.DEFAULT_WEIGHT);
+        boolean removed = prefixTree.remove(s);
+        afterRecord();
+        return removed;
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix) {
+        return prefixTree.autocomplete(prefix);
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        return prefixTree.autocomplete(prefix, limit);
+    }
+    
+    public List<String> topK(String prefix, int k) {
+        return prefixTree.topK(prefix, k);
+    }
+    
+    public int countWithPrefix(String prefix) {
+        return prefixTree.countWithPrefix(prefix);
+    }
+    
+    @Override
+    public long memoryFootprint() {
+        return prefixTree.memoryFootprint();
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return prefixTree.iterator();
+    }
+    
+    /**
+     * Forces all the logged mutations to the disk.
+     *
+     * @throws IOException if writing fails now or failed before, in which
+     *                     case the logged mutations may be lost.
+     */
+    public void sync() throws IOException {
+        checkNotClosed();
+        checkNoSyncFailure();
+        
+        try {
+            logFileStream.getChannel().force(false);
+        } catch (IOException ex) {
+            // The failed pages may be dropped, so a later force proves nothing:
+            syncFailure = ex;
+            throw ex;
+        }
+        
+        unsyncedRecordCount = 0;
+    }
+    
+    /**
+     * Starts compacting the log into the snapshot in the background, unless
+     * a compaction is already running, in which case that one is returned.
+     * If a previous compaction failed, its log is compacted now instead of
+     * the current one.
+     *
+     * @return the future completed when the snapshot has been replaced.
+     * @throws IOException if the log cannot be renamed.
+     */
+    public CompletableFuture<Void> compact() throws IOException {
+        checkNotClosed();
+        
+        if (!compaction.isDone()) {
+            return compaction;
+        }
+        
+        Path compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+        
+        if (!Files.exists(compactedLogPath)) {
+            renameLog();
+        }
+        
+        compaction = CompletableFuture.runAsync(() -> {
+            try {
+                writeCompactedSnapshot(directory);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, compactionExecutor);
+        
+        return compaction;
+    }
+    
+    /**
+     * Waits for the running compaction, forces the log to the disk and
+     * closes it.
+     *
+     * @throws IOException if the compaction or writing fails, or a forced
+     *                     write failed before.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        
+        try {
+            compaction.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while compacting.", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException("The compaction failed.", ex.getCause());
+        } finally {
+            closed = true;
+            compactionExecutor.shutdown();
+            closeLog();
+        }
+        
+        checkNoSyncFailure();
+    }
+    
+    private void openLog() throws IOException {
+        Path logPath = directory.resolve(LOG_FILE_NAME);
+        FileOutputStream newLogFileStream =
+                new FileOutputStream(logPath.toFile(), true);
+        
+        try {
+            logSize = newLogFileStream.getChannel().size();
+        } catch (IOException ex) {
+            newLogFileStream.close();
+            throw ex;
+        }
+        
+        logFileStream = newLogFileStream;
+        unsyncedRecordCount = 0;
+    }
+    
+    private void closeLog() throws IOException {
+        try {
+            logFileStream.getChannel().force(false);
+        } finally {
+            logFileStream.close();
+        }
+    }
+    
+    /**
+     * Renames the log to the compacted log and starts a fresh one. The open
+     * stream follows the renamed file, so if any step fails, the mutations
+     * keep going to a valid log under its original name.
+     */
+    private void renameLog() throws IOException {
+        Path logPath = directory.resolve(LOG_FILE_NAME);
+        Path compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+        FileOutputStream oldLogFileStream = logFileStream;
+        
+        sync();
+        Files.move(logPath, compactedLogPath, StandardCopyOption.ATOMIC_MOVE);
+        
+        try {
+            openLog();
+        } catch (IOException ex) {
+            // Keep appending to the old log, under its old name again:
+            Files.move(compactedLogPath,
+                       logPath,
+                       StandardCopyOption.ATOMIC_MOVE);
+            throw ex;
+        }
+        
+        syncDirectory(directory);
+        oldLogFileStream.close();
+    }
+    
+    private void appendRecord(byte operation, String s, long weight) {
+        checkNotClosed();
+        String string = s == null ? "" : s;
+        int recordLength = RECORD_OVERHEAD
+                         + Character.BYTES * string.length()
+                         + (operation == ADD_WITH_WEIGHT ? Long.BYTES : 0);
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.put(operation).putInt(string.length());
+        
+        for (int i = 0, length = string.length(); i < length; ++i) {
+            record.putChar(string.charAt(i));
+        }
+        
+        if (operation == ADD_WITH_WEIGHT) {
+            record.putLong(weight);
+        }
+        
+        checksum.reset();
+        checksum.update(record.array(), 0, record.position());
+        record.putInt((int) checksum.getValue());
+        
+        try {
+            logFileStream.write(record.array());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        
+        logSize += recordLength;
+    }
+    
+    /**
+     * Forces the log after every {@code recordsPerSync} records and starts a
+     * compaction once the log exceeds the threshold. Called after the logged
+     * mutation is applied, so a failure here cannot fail the mutation; it is
+     * kept for {@link #sync()} and {@link #close()} to report instead.
+     */
+    private void afterRecord() {
+        if (recordsPerSync > 0 && ++unsyncedRecordCount >= recordsPerSync) {
+            try {
+                sync();
+            } catch (IOException ex) {
+                // Kept in syncFailure.
+            }
+        }
+        
+        if (logSize >= compactionThreshold && compaction.isDone()) {
+            try {
+                compact();
+            } catch (IOException ex) {
+                compaction = CompletableFuture.failedFuture(ex);
+            }
+        }
+    }
+    
+    private void checkNoSyncFailure() throws IOException {
+        if (syncFailure != null) {
+            throw new IOException("Forcing the log to the disk failed.",
+                                  syncFailure);
+        }
+    }
+    
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The tree is closed.");
+        }
+    }
+    
+    private static PrefixTree loadSnapshot(Path directory) throws IOException {
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE_NAME);
+        
+        if (!Files.exists(snapshotPath)) {
+            return new PrefixTree();
+        }
+        
+        try (InputStream in = Files.newInputStream(snapshotPath)) {
+            return PrefixTree.readSnapshot(in);
+        }
+    }
+    
+    /**
+     * Loads the snapshot, replays the compacted log into it, and replaces
+     * the snapshot with the result, after which the compacted log is
+     * redundant and deleted.
+     */
+    private static void writeCompactedSnapshot(Path directory)
+            throws IOException {
+        PrefixTree tree = loadSnapshot(directory);
+        Path compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+        replay(compactedLogPath, tree);
+        
+        Path temporaryPath = directory.resolve(TEMPORARY_SNAPSHOT_FILE_NAME);
+        
+        try (FileOutputStream out =
+                new FileOutputStream(temporaryPath.toFile())) {
+            tree.writeSnapshot(out);
+            out.getChannel().force(false);
+        }
+        
+        Files.move(temporaryPath,
+                   directory.resolve(SNAPSHOT_FILE_NAME),
+                   StandardCopyOption.ATOMIC_MOVE,
+                   StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+        Files.delete(compactedLogPath);
+        syncDirectory(directory);
+    }
+    
+    /**
+     * Applies the records of the log at {@code path} to {@code tree} up to
+     * the first torn or corrupt record.
+     *
+     * @return the length of the valid part of the log in bytes.
+     */
+    private static long replay(Path path, PrefixTree tree) throws IOException {
+        CRC32 checksum = new CRC32();
+        long fileSize = Files.size(path);
+        long validLength = 0L;
+        
+        try (DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(Files.newInputStream(path),
+                                                1 << 16))) {
+            while (validLength < fileSize) {
+                byte operation = in.readByte();
+                int length = in.readInt();
+                
+                if (operation < ADD
+                        || operation > CLEAR
+                        || length < 0
+                        || length > (fileSize - validLength)
+                                    / Character.BYTES) {
+                    break;
+                }
+                
+                char[] chars = new char[length];
+                
+                for (int i = 0; i < length; ++i) {
+                    chars[i] = in.readChar();
+                }
+                
+                long weight = operation == ADD_WITH_WEIGHT ?
+                              in.readLong() :
+                              PrefixTree.DEFAULT_WEIGHT;
+                int expectedChecksum = in.readInt();
+                
+                ByteBuffer record = ByteBuffer.allocate(
+                        RECORD_OVERHEAD - Integer.BYTES
+                                + Character.BYTES * length
+                                + (operation == ADD_WITH_WEIGHT ?
+                                   Long.BYTES : 0));
+                record.put(operation).putInt(length);
+                
+                for (char ch : chars) {
+                    record.putChar(ch);
+                }
+                
+                if (operation == ADD_WITH_WEIGHT) {
+                    record.putLong(weight);
+                }
+                
+                checksum.reset();
+                checksum.update(record.array());
+                
+                if ((int) checksum.getValue() != expectedChecksum) {
+                    break;
+                }
+                
+                String s = new String(chars);
+                
+                switch (operation) {
+                    case ADD             -> tree.add(s);
+                    case ADD_WITH_WEIGHT -> tree.add(s, weight);
+                    case REMOVE          -> tree.remove(s);
+                    default              -> tree.clear();
+                }
+                
+                validLength += record.capacity() + Integer.BYTES;
+            }
+        } catch (EOFException ex) {
+            // The last record is torn. Everything before it is valid.
+        }
+        
+        return validLength;
+    }
+    
+    /**
+     * Forces the renames in {@code directory} to the disk where the platform
+     * supports it.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel =
+                FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not supported on this platform; the rename is still atomic.
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements an immutable, succinct prefix tree encoded with the
+ * level-order unary degree sequence (LOUDS). The nodes are numbered in
+ * breadth-first order, the root being the node 0. The shape of the tree takes
+ * about two bits per node, the string terminal flags one bit per node, and
+ * the edge labels one {@code char} per node. Instances are obtained via
+ * {@link PrefixTree#freeze()}.
+ *
+ * <p>The LOUDS bit sequence starts with {@code 10} standing for a virtual
+ * super-root, followed by {@code 1^d 0} for each node of degree {@code d} in
+ * breadth-first order. The {@code i}th one bit stands for the node {@code i},
+ * and the children of the node {@code i} are described by the bits between
+ * the {@code i}th and the {@code (i + 1)}th zero bits.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class FrozenPrefixTree implements Iterable<String> {
+    
+    private static final int ROOT = 0;
+    
+    private final BitVector louds;
+    private final BitVector terminals;
+    
+    // labels[i] is the label of the edge leading to the node 'i':
+    private final char[] labels;
+    private final int size;
+    
+    FrozenPrefixTree(BitVector louds,
+                     BitVector terminals,
+                     char[] labels,
+                     int size) {
+        this.louds = louds;
+        this.terminals = terminals;
+        this.labels = labels;
+        this.size = size;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this tree.
+     *
+     * @return the estimated size in bytes.
+     */
+    public long memoryFootprint() {
+        return MemoryFootprint.objectSize(Integer.BYTES, 3)
+                + louds.memoryFootprint()
+                + terminals.memoryFootprint()
+                + MemoryFootprint.arraySize(labels.length, Character.BYTES);
+    }
+    
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int node = getPrefixNode(s);
+        return node >= 0 && terminals.get(node);
+    }
+    
+    public List<String> autocomplete(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        int node = getPrefixNode(prefix);
+        
+        if (node < 0) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator = new FrozenPrefixTreeIterator(node, prefix);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns an iterator over the strings in lexicographic order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new FrozenPrefixTreeIterator(ROOT, "");
+    }
+    
+    /**
+     * Returns the number of nodes in this tree.
+     *
+     * @return the number of nodes.
+     */
+    int nodeCount() {
+        return labels.length;
+    }
+    
+    char label(int node) {
+        return labels[node];
+    }
+    
+    boolean isTerminal(int node) {
+        return terminals.get(node);
+    }
+    
+    /**
+     * Returns the first child of {@code node}. The children of a node have
+     * consecutive indices.
+     */
+    int firstChild(int node) {
+        return louds.rank1(louds.select0(node) + 1);
+    }
+    
+    int childCount(int node) {
+        return louds.select0(node + 1) - louds.select0(node) - 1;
+    }
+    
+    private int getChild(int node, char ch) {
+        int start = louds.select0(node) + 1;
+        int end = louds.select0(node + 1);
+        
+        if (start == end) {
+            return -1;
+        }
+        
+        int firstChild = louds.rank1(start);
+        int index = Arrays.binarySearch(labels,
+                                        firstChild,
+                                        firstChild + end - start,
+                                        ch);
+        return index >= 0 ? index : -1;
+    }
+    
+    private int getPrefixNode(String s) {
+        int node = ROOT;
+        
+        for (int i = 0, len = s.length(); i < len && node >= 0; ++i) {
+            node = getChild(node, s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses a subtree depth-first. Each stack frame holds
+     * the next child to visit and the end of the child range of a node.
+     */
+    private final class FrozenPrefixTreeIterator implements Iterator<String> {
+        
+        private final StringBuilder stringBuilder;
+        private int[] nextChildStack = new int[8];
+        private int[] endChildStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        FrozenPrefixTreeIterator(int startNode, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            push(startNode);
+            
+            if (terminals.get(startNode)) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                
+                if (nextChildStack[top] == endChildStack[top]) {
+                    // The node on top is exhausted. Backtrack:
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                int child = nextChildStack[top]++;
+                stringBuilder.append(labels[child]);
+                push(child);
+                
+                if (terminals.get(child)) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(int node) {
+            if (depth == nextChildStack.length) {
+                nextChildStack = Arrays.copyOf(nextChildStack, 2 * depth);
+                endChildStack = Arrays.copyOf(endChildStack, 2 * depth);
+            }
+            
+            int start = louds.select0(node) + 1;
+            int end = louds.select0(node + 1);
+            int firstChild = louds.rank1(start);
+            
+            nextChildStack[depth] = firstChild;
+            endChildStack[depth] = firstChild + end - start;
+            depth++;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a thread-safe histogram of non-negative 
+ * {@code long} values with logarithmic buckets, in the manner of 
+ * HdrHistogram. The values below {@code 8} have a bucket each; above that, 
+ * each power of two is divided into {@code 8} buckets, so a reported 
+ * percentile overestimates the recorded value by at most 12.5%, and the whole
+ * range of {@code long} fits into a few hundred buckets. Recording a value 
+ * takes a few atomic increments and never blocks.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class Histogram {
+    
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = 
+            (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    
+    private final AtomicLongArray bucketCounts = 
+            new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator maximum = 
+            new LongAccumulator(Math::max, 0L);
+    
+    /**
+     * Records {@code value}. The negative values are recorded as zero.
+     * 
+     * @param value the value to record.
+     */
+    public void record(long value) {
+        value = Math.max(0L, value);
+        bucketCounts.incrementAndGet(getBucketIndex(value));
+        count.increment();
+        sum.add(value);
+        maximum.accumulate(value);
+    }
+    
+    public long getCount() {
+        return count.sum();
+    }
+    
+    /**
+     * Returns the mean of the recorded values, or zero if there are none.
+     * 
+     * @return the mean value.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0L ? 0.0 : (double) sum.sum() / n;
+    }
+    
+    public long getMaximum() {
+        return maximum.get();
+    }
+    
+    /**
+     * Returns an upper bound of the value below which {@code percentile} 
+     * percent of the recorded values fall, or zero if there are none.
+     * 
+     * @param percentile the percentile within {@code [0, 100]}.
+     * @return the value at the percentile.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException(
+                    "Percentile out of range: " + percentile);
+        }
+        
+        long total = 0L;
+        long[] counts = new long[BUCKET_COUNT];
+        
+        // Read the buckets once, so that the concurrent recordings cannot 
+        // make the counts disagree with the total:
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts[i] = bucketCounts.get(i);
+            total += counts[i];
+        }
+        
+        if (total == 0L) {
+            return 0L;
+        }
+        
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulativeCount = 0L;
+        
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            cumulativeCount += counts[i];
+            
+            if (cumulativeCount >= rank) {
+                return Math.min(getBucketUpperBound(i), getMaximum());
+            }
+        }
+        
+        return getMaximum();
+    }
+    
+    @Override
+    public String toString() {
+        return "[count: " + getCount()
+                + ", mean: " + String.format("%.1f", getMean())
+                + ", p50: " + getValueAtPercentile(50.0)
+                + ", p99: " + getValueAtPercentile(99.0)
+                + ", max: " + getMaximum()
+                + "]";
+    }
+    
+    private static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+    
+    private static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1L;
+    }
+}
@@ -0,0 +1,432 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements a read-only prefix tree queried directly from a
+ * memory-mapped file, without deserializing it into node objects. The data
+ * lives off the heap in the page cache, so opening a file is instant and the
+ * pages are shared by all the JVMs mapping the same file. Opening checks only
+ * the header, unless asked to verify the whole file; a query on a corrupt
+ * file that was not verified may throw an {@link IndexOutOfBoundsException}.
+ *
+ * <p>The file format, all numbers being big-endian:
+ * <pre>
+ * header: int magic ("CRAT"), int version, int size, int node count
+ * node:   int (child count &lt;&lt; 1 | terminal flag)
+ *         char[child count] sorted edge labels
+ *         padding to a multiple of four bytes
+ *         int[child count] absolute offsets of the child nodes
+ * </pre>
+ * The root node follows the header and the nodes are laid out in
+ * breadth-first order, so the child offsets, read in file order, name the
+ * nodes after the root one by one. Since the offsets are {@code int}s, a
+ * file may not exceed 2 GiB.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class MappedPrefixTree implements Iterable<String> {
+    
+    private static final int MAGIC = 0x43524154;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ROOT_OFFSET = HEADER_SIZE;
+    
+    private final MappedByteBuffer buffer;
+    private final int size;
+    
+    private MappedPrefixTree(MappedByteBuffer buffer, boolean verify)
+            throws IOException {
+        this.buffer = buffer;
+        
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a prefix tree file.");
+        }
+        
+        this.size = buffer.getInt(8);
+        int nodeCount = buffer.getInt(12);
+        
+        // Each node record takes at least four bytes:
+        if (nodeCount < 1
+                || nodeCount > (buffer.capacity() - HEADER_SIZE)
+                                / Integer.BYTES) {
+            throw new IOException(
+                    "Corrupt prefix tree file: bad node count "
+                            + nodeCount + ".");
+        }
+        
+        if (size < 0 || size > nodeCount) {
+            throw new IOException(
+                    "Corrupt prefix tree file: bad size " + size + ".");
+        }
+        
+        if (verify) {
+            validate(nodeCount);
+        }
+    }
+    
+    /**
+     * Reads the whole buffer to check that the node records fill it exactly
+     * and form a tree laid out in breadth-first order, so that no query can
+     * read outside the buffer or loop forever.
+     *
+     * @param nodeCount the node count in the header.
+     * @throws IOException if the file is corrupt.
+     */
+    private void validate(int nodeCount) throws IOException {
+        int capacity = buffer.capacity();
+        int offset = ROOT_OFFSET;
+        // The parent record and the index of the next child offset to check:
+        int parent = ROOT_OFFSET;
+        int parentIndex = 0;
+        long childOffsetCount = 0L;
+        int terminalCount = 0;
+        
+        for (int node = 0; node < nodeCount; ++node) {
+            if (capacity - offset < Integer.BYTES) {
+                throw new IOException("Corrupt prefix tree file: truncated.");
+            }
+            
+            int childCount = getChildCount(offset);
+            
+            if (childCount > Character.MAX_VALUE + 1
+                    || getRecordSize(childCount) > capacity - offset) {
+                throw new IOException("Corrupt prefix tree file: truncated.");
+            }
+            
+            for (int i = 1; i < childCount; ++i) {
+                if (getLabel(offset, i) <= getLabel(offset, i - 1)) {
+                    throw new IOException(
+                            "Corrupt prefix tree file: the child labels are "
+                                    + "not sorted.");
+                }
+            }
+            
+            if (node > 0) {
+                while (parent < offset
+                        && parentIndex == getChildCount(parent)) {
+                    parent += getRecordSize(getChildCount(parent));
+                    parentIndex = 0;
+                }
+                
+                if (parent == offset
+                        || getChild(parent,
+                                    getChildCount(parent),
+                                    parentIndex++) != offset) {
+                    throw new IOException(
+                            "Corrupt prefix tree file: bad child offset.");
+                }
+            }
+            
+            childOffsetCount += childCount;
+            terminalCount += isTerminal(offset) ? 1 : 0;
+            offset += getRecordSize(childCount);
+        }
+        
+        if (offset != capacity || childOffsetCount != nodeCount - 1) {
+            throw new IOException(
+                    "Corrupt prefix tree file: the nodes do not form a tree.");
+        }
+        
+        if (terminalCount != size) {
+            throw new IOException("Corrupt prefix tree file: " + terminalCount
+                    + " strings instead of " + size + ".");
+        }
+    }
+    
+    /**
+     * Maps the prefix tree file at {@code path} into memory, checking only
+     * its header.
+     *
+     * @param path the path of the file written by
+     *             {@link #write(PrefixTree, Path)}.
+     * @return the mapped prefix tree.
+     * @throws IOException if the file cannot be mapped or has a wrong header.
+     */
+    public static MappedPrefixTree open(Path path) throws IOException {
+        return open(path, false);
+    }
+    
+    /**
+     * Maps the prefix tree file at {@code path} into memory. Verifying reads
+     * the whole file once, which takes time linear in its size, but
+     * guarantees that no query fails on it.
+     *
+     * @param path   the path of the file written by
+     *               {@link #write(PrefixTree, Path)}.
+     * @param verify whether to verify all the node records.
+     * @return the mapped prefix tree.
+     * @throws IOException if the file cannot be mapped or has a wrong format.
+     */
+    public static MappedPrefixTree open(Path path, boolean verify)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.READ)) {
+            return new MappedPrefixTree(
+                    channel.map(FileChannel.MapMode.READ_ONLY,
+                                0L,
+                                channel.size()),
+                    verify);
+        }
+    }
+    
+    /**
+     * Writes the strings of {@code prefixTree} to {@code path} in the format
+     * read by {@link #open(Path)}.
+     *
+     * @param prefixTree the prefix tree to write.
+     * @param path       the target file.
+     * @throws IOException if writing fails or the file would exceed 2 GiB.
+     */
+    public static void write(PrefixTree prefixTree, Path path)
+            throws IOException {
+        FrozenPrefixTree frozen = prefixTree.freeze();
+        int nodeCount = frozen.nodeCount();
+        int[] offsets = new int[nodeCount];
+        long offset = ROOT_OFFSET;
+        
+        for (int node = 0; node < nodeCount; ++node) {
+            offsets[node] = (int) offset;
+            offset += getRecordSize(frozen.childCount(node));
+            
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("The prefix tree file would exceed "
+                        + "2 GiB.");
+            }
+        }
+        
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(frozen.size());
+            out.writeInt(nodeCount);
+            
+            for (int node = 0; node < nodeCount; ++node) {
+                int childCount = frozen.childCount(node);
+                int firstChild = frozen.firstChild(node);
+                
+                out.writeInt(childCount << 1
+                        | (frozen.isTerminal(node) ? 1 : 0));
+                
+                for (int i = 0; i < childCount; ++i) {
+                    out.writeChar(frozen.label(firstChild + i));
+                }
+                
+                if (childCount % 2 != 0) {
+                    out.writeChar(0);
+                }
+                
+                for (int i = 0; i < childCount; ++i) {
+                    out.writeInt(offsets[firstChild + i]);
+                }
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int node = getPrefixNode(s);
+        return node >= 0 && isTerminal(node);
+    }
+    
+    public List<String> autocomplete(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        int node = getPrefixNode(prefix);
+        
+        if (node < 0) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator = new MappedPrefixTreeIterator(node, prefix);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns an iterator over the strings in lexicographic order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new MappedPrefixTreeIterator(ROOT_OFFSET, "");
+    }
+    
+    private static int getRecordSize(int childCount) {
+        return Integer.BYTES
+                + Character.BYTES * (childCount + childCount % 2)
+                + Integer.BYTES * childCount;
+    }
+    
+    private int getChildCount(int node) {
+        return buffer.getInt(node) >>> 1;
+    }
+    
+    private boolean isTerminal(int node) {
+        return (buffer.getInt(node) & 1) != 0;
+    }
+    
+    private char getLabel(int node, int index) {
+        return buffer.getChar(node + Integer.BYTES + Character.BYTES * index);
+    }
+    
+    private int getChild(int node, int childCount, int index) {
+        int labelsSize = Character.BYTES * (childCount + childCount % 2);
+        return buffer.getInt(node
+                + Integer.BYTES
+                + labelsSize
+                + Integer.BYTES * index);
+    }
+    
+    private int getChild(int node, char ch) {
+        int childCount = getChildCount(node);
+        int low = 0;
+        int high = childCount - 1;
+        
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = getLabel(node, middle);
+            
+            if (label < ch) {
+                low = middle + 1;
+            } else if (label > ch) {
+                high = middle - 1;
+            } else {
+                return getChild(node, childCount, middle);
+            }
+        }
+        
+        return -1;
+    }
+    
+    private int getPrefixNode(String s) {
+        int node = ROOT_OFFSET;
+        
+        for (int i = 0, len = s.length(); i < len && node >= 0; ++i) {
+            node = getChild(node, s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses a subtree depth-first. Each stack frame holds
+     * the offset of a node and the index of its next child to visit.
+     */
+    private final class MappedPrefixTreeIterator implements Iterator<String> {
+        
+        private final StringBuilder stringBuilder;
+        private int[] nodeStack = new int[8];
+        private int[] indexStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        MappedPrefixTreeIterator(int startNode, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            nodeStack[0] = startNode;
+            depth = 1;
+            
+            if (isTerminal(startNode)) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                int node = nodeStack[top];
+                int index = indexStack[top];
+                int childCount = getChildCount(node);
+                
+                if (index == childCount) {
+                    // The node on top is exhausted. Backtrack:
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                indexStack[top] = index + 1;
+                int child = getChild(node, childCount, index);
+                stringBuilder.append(getLabel(node, index));
+                push(child);
+                
+                if (isTerminal(child)) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(int node) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = node;
+            indexStack[depth] = 0;
+            depth++;
+        }
+    }
+}
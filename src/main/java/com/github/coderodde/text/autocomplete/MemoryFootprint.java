@@ -0,0 +1,68 @@
+package com.github.coderodde.text.autocomplete;
+
+/**
+ * This class estimates the heap sizes of objects and arrays under the layout
+ * of a 64-bit HotSpot JVM with compressed class pointers and references, the
+ * default for heaps below 32 GiB: a 12-byte object header, a 16-byte array 
+ * header, 4-byte references and 8-byte alignment.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+final class MemoryFootprint {
+    
+    static final int OBJECT_HEADER_SIZE = 12;
+    static final int ARRAY_HEADER_SIZE = 16;
+    static final int REFERENCE_SIZE = 4;
+    static final int ALIGNMENT = 8;
+    
+    // A String has a header, an int hash, a byte coder, a boolean and a 
+    // reference to its byte array:
+    private static final long STRING_SIZE = 
+            objectSize(Integer.BYTES + 2 * Byte.BYTES, 1);
+    
+    private MemoryFootprint() {
+        
+    }
+    
+    /**
+     * Returns the size of an object with {@code primitiveBytes} bytes of 
+     * primitive fields and {@code referenceCount} reference fields.
+     */
+    static long objectSize(int primitiveBytes, int referenceCount) {
+        return align(OBJECT_HEADER_SIZE 
+                + primitiveBytes 
+                + (long) referenceCount * REFERENCE_SIZE);
+    }
+    
+    static long arraySize(int length, int elementSize) {
+        return align(ARRAY_HEADER_SIZE + (long) length * elementSize);
+    }
+    
+    static long referenceArraySize(int length) {
+        return arraySize(length, REFERENCE_SIZE);
+    }
+    
+    /**
+     * Returns the size of {@code s} with its byte array, assuming compact 
+     * strings: one byte per character if all the characters are Latin-1, 
+     * two bytes otherwise.
+     */
+    static long stringSize(String s) {
+        int bytesPerChar = 1;
+        
+        for (int i = 0, len = s.length(); i < len; ++i) {
+            if (s.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        
+        return STRING_SIZE + arraySize(s.length(), bytesPerChar);
+    }
+    
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
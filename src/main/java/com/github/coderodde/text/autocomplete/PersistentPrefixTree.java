@@ -0,0 +1,455 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements a persistent prefix tree. The nodes are immutable, and
+ * each {@code add} and {@code remove} copies only the path from the root to
+ * the affected node, sharing all the other nodes with the previous version.
+ * Consequently, {@link #snapshot()} runs in constant time, and a snapshot
+ * costs memory only for the paths changed after it was taken. The iterators
+ * traverse the version current at their creation, so they never throw
+ * {@link java.util.ConcurrentModificationException}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class PersistentPrefixTree implements AutocompleteEngine {
+    
+    private static final class Node {
+        
+        static final Node EMPTY = new Node(false, new char[0], new Node[0]);
+        
+        final boolean representsString;
+        
+        // The sorted edge labels and the respective children:
+        final char[] keys;
+        final Node[] children;
+        
+        Node(boolean representsString, char[] keys, Node[] children) {
+            this.representsString = representsString;
+            this.keys = keys;
+            this.children = children;
+        }
+        
+        Node get(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        boolean isDead() {
+            return !representsString && keys.length == 0;
+        }
+        
+        Node withString(boolean representsString) {
+            return new Node(representsString, keys, children);
+        }
+        
+        Node withChild(char key, Node child) {
+            int index = Arrays.binarySearch(keys, key);
+            
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = child;
+                return new Node(representsString, keys, newChildren);
+            }
+            
+            index = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = key;
+            newChildren[index] = child;
+            System.arraycopy(keys,
+                             index,
+                             newKeys,
+                             index + 1,
+                             keys.length - index);
+            System.arraycopy(children,
+                             index,
+                             newChildren,
+                             index + 1,
+                             children.length - index);
+            
+            return new Node(representsString, newKeys, newChildren);
+        }
+        
+        Node withoutChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys,
+                             index + 1,
+                             newKeys,
+                             index,
+                             newKeys.length - index);
+            System.arraycopy(children,
+                             index + 1,
+                             newChildren,
+                             index,
+                             newChildren.length - index);
+            
+            return new Node(representsString, newKeys, newChildren);
+        }
+    }
+    
+    /**
+     * This class implements an immutable view of a {@link PersistentPrefixTree}
+     * as it was when the snapshot was taken.
+     */
+    public static final class Snapshot implements Iterable<String> {
+        
+        private final Node root;
+        private final int size;
+        
+        private Snapshot(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+        
+        public int size() {
+            return size;
+        }
+        
+        public boolean isEmpty() {
+            return size == 0;
+        }
+        
+        public boolean contains(String s) {
+            return PersistentPrefixTree.contains(root, s);
+        }
+        
+        public List<String> autocomplete(String prefix) {
+            return PersistentPrefixTree.autocomplete(root, prefix);
+        }
+        
+        @Override
+        public Iterator<String> iterator() {
+            return new PersistentPrefixTreeIterator(root, "");
+        }
+    }
+    
+    private Node root = Node.EMPTY;
+    private int size;
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by the current version 
+     * of this tree. The nodes shared with the snapshots are counted as well,
+     * and so the footprints of several versions do not add up.
+     *
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        long nodeSize = MemoryFootprint.objectSize(1, 2);
+        long footprint = MemoryFootprint.objectSize(Integer.BYTES, 1);
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        
+        while (!nodeStack.isEmpty()) {
+            Node node = nodeStack.pop();
+            footprint += nodeSize;
+            
+            // The empty arrays are shared by all the leaves:
+            if (node.keys.length == 0) {
+                continue;
+            }
+            
+            footprint += 
+                    MemoryFootprint.arraySize(node.keys.length, 
+                                              Character.BYTES)
+                    + MemoryFootprint.referenceArraySize(node.children.length);
+            
+            for (Node child : node.children) {
+                nodeStack.push(child);
+            }
+        }
+        
+        return footprint;
+    }
+    
+    @Override
+    public void clear() {
+        root = Node.EMPTY;
+        size = 0;
+    }
+    
+    @Override
+    public boolean add(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node[] path = getPath(s);
+        int pathLength = getPathLength(path);
+        Node node;
+        int index;
+        
+        if (pathLength == path.length) {
+            if (path[s.length()].representsString) {
+                // The input string is already present in this tree:
+                return false;
+            }
+            
+            node = path[s.length()].withString(true);
+            index = s.length() - 1;
+        } else {
+            // Build the missing suffix bottom-up:
+            node = new Node(true, Node.EMPTY.keys, Node.EMPTY.children);
+            int missingIndex = pathLength - 1;
+            
+            for (int i = s.length() - 1; i > missingIndex; --i) {
+                node = new Node(false,
+                                new char[]{ s.charAt(i) },
+                                new Node[]{ node });
+            }
+            
+            node = path[missingIndex].withChild(s.charAt(missingIndex), node);
+            index = missingIndex - 1;
+        }
+        
+        root = copyPath(path, s, index, node);
+        size++;
+        return true;
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        return contains(root, s);
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node[] path = getPath(s);
+        
+        if (getPathLength(path) < path.length
+                || !path[s.length()].representsString) {
+            return false;
+        }
+        
+        Node node = path[s.length()].withString(false);
+        int index = s.length() - 1;
+        
+        // Drop the nodes that no longer lead to any string:
+        while (index >= 0 && node.isDead()) {
+            node = path[index].withoutChild(s.charAt(index));
+            index--;
+        }
+        
+        root = copyPath(path, s, index, node);
+        size--;
+        return true;
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix) {
+        return autocomplete(root, prefix);
+    }
+    
+    /**
+     * Returns an immutable view of the current version of this tree in
+     * constant time.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(root, size);
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return new PersistentPrefixTreeIterator(root, "");
+    }
+    
+    /**
+     * Returns the nodes on the path of {@code s}. The array has
+     * {@code s.length() + 1} components, the trailing ones being {@code null}
+     * if {@code s} leaves the tree.
+     */
+    private Node[] getPath(String s) {
+        Node[] path = new Node[s.length() + 1];
+        Node node = root;
+        path[0] = node;
+        
+        for (int i = 0; i < s.length(); ++i) {
+            node = node.get(s.charAt(i));
+            
+            if (node == null) {
+                break;
+            }
+            
+            path[i + 1] = node;
+        }
+        
+        return path;
+    }
+    
+    private static int getPathLength(Node[] path) {
+        int length = 0;
+        
+        while (length < path.length && path[length] != null) {
+            length++;
+        }
+        
+        return length;
+    }
+    
+    /**
+     * Copies the nodes {@code path[index], ..., path[0]}, replacing each
+     * time the child on the path with the copy made in the previous step,
+     * the first replacement being {@code node}.
+     *
+     * @return the new root.
+     */
+    private static Node copyPath(Node[] path, String s, int index, Node node) {
+        for (; index >= 0; --index) {
+            node = path[index].withChild(s.charAt(index), node);
+        }
+        
+        return node;
+    }
+    
+    private static boolean contains(Node root, String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = getPrefixNode(root, s);
+        return node != null && node.representsString;
+    }
+    
+    private static List<String> autocomplete(Node root, String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        Node prefixNodeEnd = getPrefixNode(root, prefix);
+        
+        if (prefixNodeEnd == null) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator =
+                new PersistentPrefixTreeIterator(prefixNodeEnd, prefix);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    private static Node getPrefixNode(Node node, String s) {
+        for (int i = 0, len = s.length(); i < len && node != null; ++i) {
+            node = node.get(s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses an immutable subtree depth-first in
+     * lexicographic order.
+     */
+    private static final class PersistentPrefixTreeIterator
+            implements Iterator<String> {
+        
+        private final StringBuilder stringBuilder;
+        private Node[] nodeStack = new Node[8];
+        private int[] indexStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        PersistentPrefixTreeIterator(Node startNode, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            nodeStack[0] = startNode;
+            depth = 1;
+            
+            if (startNode.representsString) {
+                nextString = prefix;
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                Node node = nodeStack[top];
+                int index = indexStack[top];
+                
+                if (index == node.keys.length) {
+                    // The node on top is exhausted. Backtrack:
+                    nodeStack[top] = null;
+                    
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                indexStack[top] = index + 1;
+                Node child = node.children[index];
+                stringBuilder.append(node.keys[index]);
+                push(child);
+                
+                if (child.representsString) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(Node node) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = node;
+            indexStack[depth] = 0;
+            depth++;
+        }
+    }
+}
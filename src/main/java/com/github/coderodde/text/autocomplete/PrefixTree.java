@@ -1,89 +1,554 @@
 package com.github.coderodde.text.autocomplete;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Deque;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 /**
  * This class implements a prefix tree (https://en.wikipedia.org/wiki/Trie).
  * 
+ * <p>This class is not thread-safe. Without a cache, the queries only read
+ * the tree, so any number of threads may query it as long as none modifies
+ * it. With a cache set by {@link #setCacheCapacity(int)}, every 
+ * autocompletion updates the cache, and even concurrent queries must be 
+ * synchronized externally.
+ * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Jan 19, 2022)
  * @since 1.6 (Jan 19, 2022)
  */
-public class PrefixTree implements Iterable<String> {
+public class PrefixTree implements AutocompleteEngine {
 
+    /**
+     * The weight of the strings added via {@link #add(java.lang.String)}.
+     */
+    public static final long DEFAULT_WEIGHT = 0L;
+    
+    // Marks the subtrees that contain no strings:
+    static final long NO_WEIGHT = Long.MIN_VALUE;
+    
+    // The snapshot format, see writeSnapshot():
+    private static final int SNAPSHOT_MAGIC = 0x50545245; // "PTRE"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int REPRESENTS_STRING_FLAG = 1;
+    private static final int WEIGHTED_FLAG = 2;
+    private static final char[] NO_KEYS = new char[0];
+    
+    // The estimated heap size of a node:
+    private static final long NODE_SIZE = 
+            MemoryFootprint.objectSize(
+                    1 + 2 * Long.BYTES + Integer.BYTES, 
+                    2);
+    
+    // The parallel autocomplete does not split the subtrees with at most this
+    // many strings:
+    private static final int MINIMUM_PARALLEL_THRESHOLD = 1 << 10;
+    
     private static final class Node {
-        Map<Character, Node> childMap;
+        CharMap<Node> childMap;
         Node parent;
         boolean representsString;
+        
+        // The weight of the string represented by this node:
+        long weight;
+        
+        // The maximum weight of a string in the subtree rooted at this node:
+        long maxWeight = NO_WEIGHT;
+        
+        // The number of strings in the subtree rooted at this node:
+        int count;
+    }
+    
+    private static final class Candidate {
+        final Node node;
+        final String string;
+        final long priority;
+        
+        // 'true' if this candidate is the string of 'node', 'false' if it 
+        // stands for the entire subtree of 'node':
+        final boolean complete;
+        
+        Candidate(Node node, String string, long priority, boolean complete) {
+            this.node = node;
+            this.string = string;
+            this.priority = priority;
+            this.complete = complete;
+        }
+    }
+    
+    private static final Comparator<Candidate> CANDIDATE_COMPARATOR = 
+            (c1, c2) -> {
+                int cmp = Long.compare(c2.priority, c1.priority);
+                
+                if (cmp != 0) {
+                    return cmp;
+                }
+                
+                if (c1.complete != c2.complete) {
+                    return c1.complete ? -1 : 1;
+                }
+                
+                return c1.string.compareTo(c2.string);
+            };
+    
+    private static final class FuzzyMatch {
+        final Node node;
+        final String string;
+        
+        // The edit distance between the query prefix and 'string':
+        final int distance;
+        
+        FuzzyMatch(Node node, String string, int distance) {
+            this.node = node;
+            this.string = string;
+            this.distance = distance;
+        }
     }
     
     private final Node root = new Node();
+    
+    // The alphabet of the dense child maps, or null for the sparse ones:
+    private final Alphabet alphabet;
     private int size;
     private int modCount;
+    
+    // The optional cache of the autocomplete results:
+    private AutocompleteCache cache;
+    
+    // The optional operation metrics:
+    private AutocompleteMetrics metrics;
+
+    public PrefixTree() {
+        this.alphabet = null;
+    }
+    
+    /**
+     * Constructs a prefix tree accepting only the strings over 
+     * {@code alphabet}. Each node holds its children in an array with a slot
+     * for each character of the alphabet, so that following an edge is a 
+     * direct array access. Pays off for small alphabets, such as digits or 
+     * lowercase letters, while the nodes of a large alphabet would be mostly
+     * empty slots.
+     * 
+     * @param alphabet the alphabet of the strings.
+     */
+    public PrefixTree(Alphabet alphabet) {
+        this.alphabet = Objects.requireNonNull(alphabet, 
+                                               "The alphabet is null.");
+    }
 
+    @Override
     public int size() {
         return size;
     }
 
+    @Override
     public boolean isEmpty() {
         return size == 0;
     }
     
+    @Override
     public void clear() {
         root.childMap = null;
+        root.representsString = false;
+        root.maxWeight = NO_WEIGHT;
+        root.count = 0;
         size = 0;
         modCount++;
+        
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+    
+    /**
+     * Puts a cache of the results of at most {@code capacity} prefixes in 
+     * front of {@link #autocomplete(java.lang.String, int)}, evicting the 
+     * least recently used prefix when full. Adding or removing a string 
+     * invalidates only the results of its own prefixes. A capacity of zero 
+     * removes the cache. The statistics start from zero.
+     * 
+     * <p>The cache is not thread-safe. With a cache, an autocompletion is no 
+     * longer read-only: it updates the recency order and the statistics of 
+     * the cache, so the threads querying this tree concurrently must be 
+     * synchronized externally.
+     * 
+     * @param capacity the maximum number of cached prefixes.
+     */
+    public void setCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(
+                    "Negative capacity: " + capacity);
+        }
+        
+        cache = capacity == 0 ? null : new AutocompleteCache(capacity);
+    }
+    
+    /**
+     * Returns the current statistics of the autocomplete result cache.
+     * 
+     * @return the cache statistics, or {@code null} if there is no cache.
+     */
+    public CacheStatistics getCacheStatistics() {
+        return cache == null ? null : cache.getStatistics();
+    }
+    
+    /**
+     * Attaches {@code metrics} to this tree, so that the latencies of 
+     * {@code add}, {@code contains}, {@code remove} and 
+     * {@code autocomplete(prefix[, limit])} are recorded in it. Passing 
+     * {@code null} detaches the metrics.
+     * 
+     * @param metrics the metrics to record into, or {@code null}.
+     */
+    public void setMetrics(AutocompleteMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    public AutocompleteMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Traverses this tree and returns the snapshot of its shape. If metrics
+     * are attached, the snapshot is published to them as well, which is how
+     * the structural JMX attributes are refreshed. Runs in time linear in 
+     * the number of nodes.
+     * 
+     * @return the structure snapshot.
+     */
+    public StructureStatistics computeStructureStatistics() {
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Integer> depthStack = new ArrayDeque<>();
+        long nodeCount = 0L;
+        long innerNodeCount = 0L;
+        long totalStringLength = 0L;
+        int maximumDepth = 0;
+        
+        nodeStack.push(root);
+        depthStack.push(0);
+        
+        while (!nodeStack.isEmpty()) {
+            Node node = nodeStack.pop();
+            int depth = depthStack.pop();
+            nodeCount++;
+            maximumDepth = Math.max(maximumDepth, depth);
+            
+            if (node.representsString) {
+                totalStringLength += depth;
+            }
+            
+            if (node.childMap == null) {
+                continue;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            innerNodeCount++;
+            
+            for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+                Node child = childMap.valueAt(i);
+                
+                if (child != null) {
+                    nodeStack.push(child);
+                    depthStack.push(depth + 1);
+                }
+            }
+        }
+        
+        StructureStatistics statistics = 
+                new StructureStatistics(
+                        size, 
+                        nodeCount, 
+                        innerNodeCount == 0L ? 
+                                0.0 : 
+                                (double)(nodeCount - 1) / innerNodeCount,
+                        maximumDepth,
+                        size == 0 ? 0.0 : (double) totalStringLength / size);
+        
+        if (metrics != null) {
+            metrics.setStructureStatistics(statistics);
+        }
+        
+        return statistics;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this tree, that is, 
+     * by its nodes and their child maps. The strings themselves are not 
+     * stored, and the result cache and the metrics are not included. Runs in
+     * time linear in the number of nodes.
+     * 
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        long footprint = MemoryFootprint.objectSize(2 * Integer.BYTES, 3);
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        
+        while (!nodeStack.isEmpty()) {
+            Node node = nodeStack.pop();
+            footprint += NODE_SIZE;
+            
+            if (node.childMap == null) {
+                continue;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            footprint += childMap.memoryFootprint();
+            
+            for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+                Node child = childMap.valueAt(i);
+                
+                if (child != null) {
+                    nodeStack.push(child);
+                }
+            }
+        }
+        
+        return footprint;
     }
     
+    @Override
     public boolean add(String s) {
+        return add(s, DEFAULT_WEIGHT, false);
+    }
+    
+    /**
+     * Adds the string {@code s} with the weight {@code weight}. If {@code s} 
+     * is already in this tree, only its weight is updated.
+     * 
+     * @param s      the string to add.
+     * @param weight the weight of {@code s}.
+     * @return {@code true} if {@code s} was not yet in this tree.
+     * @throws IllegalArgumentException if this tree has an alphabet and 
+     *                                  {@code s} has a character not in it.
+     */
+    public boolean add(String s, long weight) {
+        if (weight == NO_WEIGHT) {
+            throw new IllegalArgumentException(
+                    "The weight " + weight + " is reserved.");
+        }
+        
+        return add(s, weight, true);
+    }
+    
+    private boolean add(String s, long weight, boolean updateWeight) {
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return addString(s, weight, updateWeight);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean added = addString(s, weight, updateWeight);
+        metrics.recordAdd(System.nanoTime() - startTime);
+        return added;
+    }
+    
+    private boolean addString(String s, long weight, boolean updateWeight) {
         Objects.requireNonNull(s, "The input string is null.");   
+        
+        if (alphabet != null) {
+            // Reject before creating any nodes:
+            alphabet.checkString(s);
+        }
+        
         Node node = root;
        
         for (char ch : s.toCharArray()) {
             if (node.childMap == null) {
-                node.childMap = new HashMap<>();
+                node.childMap = alphabet == null ? 
+                                new CharMap<>() : 
+                                new CharMap<>(alphabet);
             }
             
-            if (!node.childMap.containsKey(ch)) {
-                Node nextNode = new Node();
+            Node nextNode = node.childMap.get(ch);
+            
+            if (nextNode == null) {
+                nextNode = new Node();
                 nextNode.parent = node;
                 node.childMap.put(ch, nextNode);
-                node = nextNode;
-            } else {
-                // Edge exists. Just traverse it.
-                node = node.childMap.get(ch);
             }
+            
+            // Edge exists now. Just traverse it.
+            node = nextNode;
         }
         
         if (node.representsString) {
             // The input string is already present in this prefix tree:
+            if (updateWeight && node.weight != weight) {
+                node.weight = weight;
+                updateMaxWeights(node);
+            }
+            
             return false;
         }
         
         node.representsString = true;
+        node.weight = weight;
+        updateMaxWeights(node);
+        updateCounts(node, 1);
         size++;
         modCount++;
+        
+        if (cache != null) {
+            cache.invalidate(s);
+        }
+        
         return true;
     }
     
+    /**
+     * Adds all the strings from {@code iterator}, which must deliver them in 
+     * ascending order. Instead of descending from the root for each string, 
+     * keeps the path of the previous string and attaches only the new suffix 
+     * of each string. The children of the new nodes are buffered while the 
+     * nodes are on the path, and each child container is created with its 
+     * exact size once its node leaves the path.
+     * 
+     * @param iterator the iterator over the sorted strings.
+     * @return the number of strings that were not yet in this tree.
+     * @throws IllegalArgumentException if a string precedes the previous one
+     *                                  or has a character not in the 
+     *                                  alphabet of this tree. The strings 
+     *                                  before it remain added.
+     */
+    public int addAllSorted(Iterator<String> iterator) {
+        Objects.requireNonNull(iterator, "The input iterator is null.");
+        SortedLoader loader = new SortedLoader();
+        String previousString = null;
+        int added = 0;
+        
+        try {
+            while (iterator.hasNext()) {
+                String s = Objects.requireNonNull(iterator.next(), 
+                                                  "The input string is null.");
+                
+                if (alphabet != null) {
+                    alphabet.checkString(s);
+                }
+                
+                int commonLength = 0;
+                
+                if (previousString != null) {
+                    if (previousString.compareTo(s) > 0) {
+                        throw new IllegalArgumentException(
+                                "The input is not sorted: \"" + s 
+                                        + "\" after \"" + previousString 
+                                        + "\".");
+                    }
+                    
+                    commonLength = commonPrefixLength(previousString, s);
+                    loader.complete(commonLength + 1);
+                }
+                
+                Node node = loader.extend(s, commonLength);
+                
+                if (!node.representsString) {
+                    node.representsString = true;
+                    node.weight = DEFAULT_WEIGHT;
+                    size++;
+                    added++;
+                }
+                
+                previousString = s;
+            }
+        } finally {
+            loader.complete(0);
+            
+            if (added > 0) {
+                modCount++;
+                
+                if (cache != null) {
+                    cache.invalidateAll();
+                }
+            }
+        }
+        
+        return added;
+    }
+    
+    @Override
     public boolean contains(String s) {
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return containsString(s);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean contains = containsString(s);
+        metrics.recordContains(System.nanoTime() - startTime);
+        return contains;
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        AutocompleteMetrics metrics = this.metrics;
+        
+        if (metrics == null) {
+            return removeString(s);
+        }
+        
+        long startTime = System.nanoTime();
+        boolean removed = removeString(s);
+        metrics.recordRemove(System.nanoTime() - startTime);
+        return removed;
+    }
+    
+    /**
+     * Returns the weight of {@code s}.
+     *
+     * @param s the string to look up.
+     * @return the weight of {@code s}, or {@link #NO_WEIGHT} if {@code s} is
+     *         not in this tree.
+     */
+    long getWeight(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = getPrefixNode(s);
+        return node != null && node.representsString ? node.weight : NO_WEIGHT;
+    }
+    
+    private boolean containsString(String s) {
         Objects.requireNonNull(s, "The input string is null.");
         Node node = getPrefixNode(s);
         return node != null && node.representsString;
     }
     
-    public boolean remove(String s) {
+    private boolean removeString(String s) {
         Objects.requireNonNull(s, "The input string is null.");
         Node node = getPrefixNode(s);
         
@@ -91,169 +556,1618 @@ public class PrefixTree implements Iterable<String> {
             return false;
         }
         
-        if (node.representsString) {
-            size--;
-            modCount++;
-            
-            if (node.childMap != null) {
-                node.representsString = false;
-                return true;
-            }
-            
-            int charIndex = s.length() - 1;
-            node = node.parent;
+        if (!node.representsString) {
+            return false;
+        }
+        
+        node.representsString = false;
+        updateCounts(node, -1);
+        size--;
+        modCount++;
+        
+        // Prune the chain of nodes that no longer lead to any string:
+        int charIndex = s.length() - 1;
+        
+        while (node.parent != null 
+                && node.childMap == null 
+                && !node.representsString) {
+            Node parent = node.parent;
+            parent.childMap.remove(s.charAt(charIndex--));
             
-            while (node != null) {
-                node.childMap.remove(s.charAt(charIndex));
-                
-                if (node.childMap.isEmpty()) {
-                    node.childMap = null;
-                }
-                
-                if (node.representsString) {
-                    return true;
-                }
-                
-                charIndex--;
-                node = node.parent;
-                return true;
+            if (parent.childMap.isEmpty()) {
+                parent.childMap = null;
             }
             
-            return true;
+            node.parent = null;
+            node = parent;
         }
         
-        return false;
+        updateMaxWeights(node);
+        
+        if (cache != null) {
+            cache.invalidate(s);
+        }
+        
+        return true;
     }
     
+    @Override
     public List<String> autocomplete(String prefix) {
-        Objects.requireNonNull(prefix, "The input string is null.");
+        return autocomplete(prefix, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns at most {@code limit} strings starting with {@code prefix}. The
+     * traversal stops as soon as {@code limit} strings are collected.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @param limit  the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        AutocompleteMetrics metrics = this.metrics;
         
-        Node prefixNodeEnd = getPrefixNode(prefix);
+        if (metrics == null) {
+            return collectCompletions(prefix, limit);
+        }
         
-        if (prefixNodeEnd == null) {
+        long startTime = System.nanoTime();
+        List<String> autocompleteStrings = collectCompletions(prefix, limit);
+        metrics.recordAutocomplete(prefix, 
+                                   System.nanoTime() - startTime, 
+                                   autocompleteStrings.size());
+        return autocompleteStrings;
+    }
+    
+    private List<String> collectCompletions(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        checkLimit(limit);
+        
+        if (limit == 0) {
             return Collections.<String>emptyList();
         }
         
+        if (cache != null) {
+            List<String> autocompleteStrings = cache.get(prefix, limit);
+            
+            if (autocompleteStrings != null) {
+                return autocompleteStrings;
+            }
+        }
+        
+        Node prefixNodeEnd = getPrefixNode(prefix);
         List<String> autocompleteStrings = new ArrayList<>();
-        Queue<Node> nodeQueue = new ArrayDeque<>();
-        Queue<StringBuilder> substringQueue = new ArrayDeque<>();
+        Iterator<String> iterator = 
+                new CompletionIterator(prefixNodeEnd, prefix);
         
-        nodeQueue.add(prefixNodeEnd);
-        substringQueue.add(new StringBuilder(prefix));
+        while (autocompleteStrings.size() < limit && iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
         
-        while (!nodeQueue.isEmpty()) {
-            Node currentNode = nodeQueue.remove();
-            StringBuilder currentStringBuilder = substringQueue.remove();
-            
-            if (currentNode.representsString) {
-                autocompleteStrings.add(currentStringBuilder.toString());
-            }
-            
-            if (currentNode.childMap == null) {
-                // No need to expand 'currentNode':
-                continue;
-            }
-            
-            for (Map.Entry<Character, Node> entry :
-                    currentNode.childMap.entrySet()) {
-                
-                Node node = entry.getValue();
-                StringBuilder stringBuilder =
-                        new StringBuilder(currentStringBuilder)
-                                .append(entry.getKey());
-                
-                nodeQueue.add(node);
-                substringQueue.add(stringBuilder);
-            }
+        if (cache != null) {
+            cache.put(prefix, limit, autocompleteStrings);
         }
         
         return autocompleteStrings;
     }
     
-    @Override
-    public Iterator<String> iterator() {
-        return new PrefixTreeIterator();
-    }
-    
-    private Node getPrefixNode(String s) {
-        Node node = root;
+    /**
+     * Returns at most {@code limit} strings starting with {@code prefix}, 
+     * skipping the first {@code offset} of them in the order of 
+     * {@link #autocomplete(java.lang.String)}. The skipped strings are never
+     * visited: the subtrees holding fewer strings than there are left to skip
+     * are stepped over by their counts, so a deep page costs about as much as
+     * the first one. No page, the first one included, goes through the
+     * cache, and every page is recorded in the metrics.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @param offset the number of completions to skip.
+     * @param limit  the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    public List<String> autocomplete(String prefix, int offset, int limit) {
+        AutocompleteMetrics metrics = this.metrics;
         
-        for (int i = 0, len = s.length(); i < len; ++i) {
-            if (node == null || node.childMap == null) {
-                return null;
-            }
-            
-            node = node.childMap.get(s.charAt(i));
+        if (metrics == null) {
+            return collectPage(prefix, offset, limit);
         }
         
-        return node;
+        long startTime = System.nanoTime();
+        List<String> autocompleteStrings = collectPage(prefix, offset, limit);
+        metrics.recordAutocomplete(prefix, 
+                                   System.nanoTime() - startTime, 
+                                   autocompleteStrings.size());
+        return autocompleteStrings;
     }
     
-    private final class PrefixTreeIterator implements Iterator<String> {
-
-        private int iterated;
-        private final int expectedModCount = PrefixTree.this.modCount;
-        private final Deque<Node> nodeDeque = new ArrayDeque<>();
-        private final Map<Node, Character> nodeToCharMap = new HashMap<>();
-        private final StringBuilder stringBuilder = new StringBuilder();
+    private List<String> collectPage(String prefix, int offset, int limit) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        checkLimit(limit);
         
-        private PrefixTreeIterator() {
-            if (!PrefixTree.this.isEmpty()) {
-                nodeDeque.addLast(PrefixTree.this.root);
-            }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset: " + offset);
         }
         
-        @Override
-        public boolean hasNext() {
-            return iterated < PrefixTree.this.size;
+        Node prefixNodeEnd = getPrefixNode(prefix);
+        
+        if (prefixNodeEnd == null 
+                || limit == 0 
+                || offset >= prefixNodeEnd.count) {
+            return Collections.<String>emptyList();
         }
-
-        @Override
-        public String next() {
-            checkForComodification();
-            
-            if (!hasNext()) {
-                throw new NoSuchElementException("No more strings to iterate.");
-            }
+        
+        List<String> autocompleteStrings = 
+                new ArrayList<>(Math.min(limit, prefixNodeEnd.count - offset));
+        CompletionIterator iterator = 
+                new CompletionIterator(prefixNodeEnd, prefix);
+        
+        iterator.skip(offset);
+        
+        while (autocompleteStrings.size() < limit && iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns the number of strings starting with {@code prefix}. Only the 
+     * path of {@code prefix} is visited.
+     * 
+     * @param prefix the prefix of the strings to count.
+     * @return the number of strings starting with {@code prefix}.
+     */
+    public int countWithPrefix(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        Node prefixNodeEnd = getPrefixNode(prefix);
+        return prefixNodeEnd == null ? 0 : prefixNodeEnd.count;
+    }
+    
+    /**
+     * Returns all the completions of each of {@code prefixes}, mapped from 
+     * the prefix. The prefixes are sorted and resolved in one walk, each one 
+     * starting from the path of the previous one, so a batch of related 
+     * prefixes shares most of the lookups. A prefix extending another one in 
+     * the batch is not traversed at all: its completions are a contiguous 
+     * run in those of the enclosing prefix, located via the subtree counts.
+     * The result cache and the metrics are bypassed.
+     * 
+     * @param prefixes the prefixes to complete.
+     * @return the map from each prefix to its completions, in the order of 
+     *         {@link #autocomplete(java.lang.String)}, iterated in 
+     *         lexicographic order of the prefixes.
+     */
+    public Map<String, List<String>> 
+        autocompleteAll(Collection<String> prefixes) {
+        Objects.requireNonNull(prefixes, "The prefix collection is null.");
+        String[] sortedPrefixes = 
+                new TreeSet<>(prefixes).toArray(String[]::new);
+        Node[] prefixNodes = getPrefixNodes(sortedPrefixes);
+        Map<String, List<String>> completionMap = 
+                new LinkedHashMap<>(2 * sortedPrefixes.length);
+        
+        String enclosingPrefix = null;
+        Node enclosingNode = null;
+        List<String> enclosingCompletions = null;
+        
+        for (int i = 0; i < sortedPrefixes.length; ++i) {
+            String prefix = sortedPrefixes[i];
+            Node node = prefixNodes[i];
+            List<String> completions;
             
-            while (true) {
-                Node node = nodeDeque.removeFirst();
+            if (node == null) {
+                completions = new ArrayList<>();
+            } else if (enclosingPrefix != null 
+                    && prefix.startsWith(enclosingPrefix)) {
+                int fromIndex = countPreceding(enclosingNode, 
+                                               prefix, 
+                                               enclosingPrefix.length());
+                completions = 
+                        new ArrayList<>(
+                                enclosingCompletions.subList(
+                                        fromIndex, 
+                                        fromIndex + node.count));
+            } else {
+                completions = new ArrayList<>(node.count);
+                Iterator<String> iterator = 
+                        new CompletionIterator(node, prefix);
                 
-                if (node.representsString) {
-                    String string = buildString(node);
-                    expand(node);
-                    iterated++;
-                    return string;
+                while (iterator.hasNext()) {
+                    completions.add(iterator.next());
                 }
                 
-                expand(node);
-            }
-        }
-        
-        private void expand(Node node) {
-            if (node.childMap == null) {
-                return;
+                enclosingPrefix = prefix;
+                enclosingNode = node;
+                enclosingCompletions = completions;
             }
             
-            for (Map.Entry<Character, Node> mapEntry :
-                    node.childMap.entrySet()) {
-                nodeDeque.addLast(mapEntry.getValue());
-                nodeToCharMap.put(mapEntry.getValue(), mapEntry.getKey());
-            }
+            completionMap.put(prefix, completions);
         }
         
-        private String buildString(Node node) {
-            while (node != null && node != PrefixTree.this.root) {
-                char ch = nodeToCharMap.get(node);
-                stringBuilder.append(ch);
-                node = node.parent;
-            }
-            
-            String string = stringBuilder.reverse().toString();
-            stringBuilder.delete(0, stringBuilder.length());
-            return string;
-        }
+        return completionMap;
+    }
+    
+    /**
+     * Returns all the strings starting with {@code prefix}, traversing the 
+     * subtrees in parallel in the common {@link ForkJoinPool}.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @return the list of completions in the order of 
+     *         {@link #autocomplete(java.lang.String)}.
+     */
+    public List<String> autocompleteParallel(String prefix) {
+        return autocompleteParallel(prefix, ForkJoinPool.commonPool());
+    }
     
+    /**
+     * Returns all the strings starting with {@code prefix}, traversing the 
+     * subtrees in parallel in {@code pool}. The parallelism level is that of
+     * {@code pool}. The subtrees holding more strings than a threshold are 
+     * split into their child subtrees, the threshold being chosen from the 
+     * number of completions so that there are a few tasks per thread, and 
+     * the results are concatenated in the order of 
+     * {@link #autocomplete(java.lang.String)}. This tree must not be
+     * modified during the call.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @param pool   the pool to run the traversal in.
+     * @return the list of completions.
+     */
+    public List<String> autocompleteParallel(String prefix, ForkJoinPool pool) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        Objects.requireNonNull(pool, "The input pool is null.");
+        
+        Node prefixNodeEnd = getPrefixNode(prefix);
+        
+        if (prefixNodeEnd == null) {
+            return Collections.<String>emptyList();
+        }
+        
+        int expectedModCount = modCount;
+        int threshold = 
+                Math.max(MINIMUM_PARALLEL_THRESHOLD, 
+                         prefixNodeEnd.count / (4 * pool.getParallelism()));
+        
+        List<String> autocompleteStrings = 
+                pool.invoke(
+                        new AutocompleteTask(
+                                prefixNodeEnd, 
+                                prefix, 
+                                threshold));
+        
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns a lazy iterator over the strings starting with {@code prefix}.
+     * The subtree is traversed depth-first only as far as the caller pulls
+     * the strings.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @return the iterator over the completions.
+     */
+    public Iterator<String> autocompleteIterator(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        return new CompletionIterator(getPrefixNode(prefix), prefix);
+    }
+    
+    /**
+     * Returns a lazy, sequential stream of the strings starting with 
+     * {@code prefix}. Short-circuiting operations such as 
+     * {@link Stream#limit(long)} and {@link Stream#findFirst()} stop the 
+     * traversal early.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @return the stream of completions.
+     */
+    public Stream<String> autocompleteStream(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        return StreamSupport.stream(
+                new PrefixTreeSpliterator(getPrefixNode(prefix), prefix), 
+                false);
+    }
+    
+    /**
+     * Returns at most {@code k} strings starting with {@code prefix} in 
+     * descending order of their weights. Runs a best-first search guided by
+     * the maximum weights cached in the subtrees, so that only the paths 
+     * leading to the returned strings and their siblings are visited.
+     * 
+     * @param prefix the prefix of the requested strings.
+     * @param k      the maximum number of strings to return.
+     * @return the list of the heaviest strings starting with {@code prefix}.
+     */
+    public List<String> topK(String prefix, int k) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        
+        if (k < 0) {
+            throw new IllegalArgumentException("Negative k: " + k);
+        }
+        
+        Node prefixNodeEnd = getPrefixNode(prefix);
+        
+        if (k == 0 
+                || prefixNodeEnd == null 
+                || prefixNodeEnd.maxWeight == NO_WEIGHT) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> topStrings = new ArrayList<>(Math.min(k, size));
+        Queue<Candidate> candidateQueue = 
+                new PriorityQueue<>(CANDIDATE_COMPARATOR);
+        
+        candidateQueue.add(
+                new Candidate(
+                        prefixNodeEnd, 
+                        prefix, 
+                        prefixNodeEnd.maxWeight, 
+                        false));
+        
+        while (topStrings.size() < k && !candidateQueue.isEmpty()) {
+            Candidate candidate = candidateQueue.remove();
+            
+            if (candidate.complete) {
+                topStrings.add(candidate.string);
+                continue;
+            }
+            
+            Node node = candidate.node;
+            
+            if (node.representsString) {
+                candidateQueue.add(
+                        new Candidate(
+                                node, 
+                                candidate.string,
+                                node.weight, 
+                                true));
+            }
+            
+            if (node.childMap == null) {
+                continue;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            
+            for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+                Node child = childMap.valueAt(i);
+                
+                if (child != null && child.maxWeight != NO_WEIGHT) {
+                    candidateQueue.add(
+                            new Candidate(
+                                    child,
+                                    candidate.string + childMap.keyAt(i),
+                                    child.maxWeight,
+                                    false));
+                }
+            }
+        }
+        
+        return topStrings;
+    }
+    
+    /**
+     * Returns at most {@code limit} strings that start with a string within
+     * the edit distance {@code maxEdits} from {@code prefix}. The strings are
+     * ordered by that distance, the ties being broken as in 
+     * {@link #autocomplete(java.lang.String)}; the exact completions thus 
+     * come first.
+     * 
+     * <p>The tree is traversed along with one row of the Levenshtein 
+     * distance matrix per node, computed from the row of the parent in 
+     * {@code O(prefix.length())} time. A branch is pruned as soon as the 
+     * minimum of its row exceeds {@code maxEdits}, since the distance can
+     * only grow below it. The traversal therefore never goes deeper than 
+     * {@code prefix.length() + maxEdits}.
+     * 
+     * @param prefix   the possibly mistyped prefix.
+     * @param maxEdits the maximum number of insertions, deletions and 
+     *                 substitutions.
+     * @param limit    the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    public List<String> fuzzyAutocomplete(String prefix, 
+                                          int maxEdits, 
+                                          int limit) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        checkLimit(limit);
+        
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException(
+                    "Negative maxEdits: " + maxEdits);
+        }
+        
+        if (limit == 0) {
+            return Collections.<String>emptyList();
+        }
+        
+        // The root is within prefix.length() edits, and its completions are
+        // all the strings, so a larger budget adds no matches:
+        maxEdits = Math.min(maxEdits, prefix.length());
+        
+        // The traversal depth never exceeds prefix.length() + maxEdits, so 
+        // one row per depth, plus one for the pruned children of the deepest
+        // nodes, is allocated up front and reused:
+        int[][] rows = 
+                new int[prefix.length() + maxEdits + 2][prefix.length() + 1];
+        
+        for (int j = 0; j <= prefix.length(); ++j) {
+            rows[0][j] = j;
+        }
+        
+        List<FuzzyMatch> matches = new ArrayList<>();
+        
+        collectFuzzyMatches(root,
+                            rows, 
+                            prefix, 
+                            maxEdits,
+                            Integer.MAX_VALUE, 
+                            new StringBuilder(), 
+                            matches);
+        
+        // Stable, so the matches at the same distance stay in DFS order:
+        matches.sort((m1, m2) -> Integer.compare(m1.distance, m2.distance));
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        
+        for (FuzzyMatch match : matches) {
+            Iterator<String> iterator = 
+                    new CompletionIterator(match.node, match.string);
+            
+            while (iterator.hasNext()) {
+                String string = iterator.next();
+                
+                // A subtree may contain a closer match visited before:
+                if (seen.add(string)) {
+                    autocompleteStrings.add(string);
+                    
+                    if (autocompleteStrings.size() == limit) {
+                        return autocompleteStrings;
+                    }
+                }
+            }
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Builds an immutable, succinct copy of this prefix tree. The copy takes a
+     * few bits per node plus one {@code char} per edge label, and is 
+     * unaffected by the later changes of this tree.
+     * 
+     * @return the frozen copy of this prefix tree.
+     */
+    public FrozenPrefixTree freeze() {
+        BitVector.Builder loudsBuilder = new BitVector.Builder();
+        BitVector.Builder terminalBuilder = new BitVector.Builder();
+        StringBuilder labelBuilder = new StringBuilder();
+        Queue<Node> nodeQueue = new ArrayDeque<>();
+        
+        // The virtual super-root pointing to the root:
+        loudsBuilder.add(true).add(false);
+        labelBuilder.append('\0');
+        nodeQueue.add(root);
+        
+        while (!nodeQueue.isEmpty()) {
+            Node node = nodeQueue.remove();
+            terminalBuilder.add(node.representsString);
+            
+            if (node.childMap != null) {
+                char[] keys = getSortedKeys(node.childMap);
+                
+                for (char key : keys) {
+                    loudsBuilder.add(true);
+                    labelBuilder.append(key);
+                    nodeQueue.add(node.childMap.get(key));
+                }
+            }
+            
+            loudsBuilder.add(false);
+        }
+        
+        return new FrozenPrefixTree(loudsBuilder.build(),
+                                    terminalBuilder.build(),
+                                    labelBuilder.toString().toCharArray(),
+                                    size);
+    }
+    
+    /**
+     * Writes a binary snapshot of this tree to {@code outputStream}, which is 
+     * flushed but not closed. The nodes are written in depth-first order, 
+     * each as a flag byte, the weight if the node represents a string of a 
+     * non-default weight, and the number of its children, followed by the 
+     * label and the record of each child in ascending order of the labels. 
+     * The snapshot ends with a CRC-32 checksum of the preceding bytes.
+     * 
+     * @param outputStream the stream to write the snapshot to.
+     * @throws IOException if writing fails.
+     */
+    public void writeSnapshot(OutputStream outputStream) throws IOException {
+        Objects.requireNonNull(outputStream, "The output stream is null.");
+        CRC32 checksum = new CRC32();
+        DataOutputStream out = 
+                new DataOutputStream(
+                        new BufferedOutputStream(
+                                new CheckedOutputStream(outputStream, 
+                                                        checksum), 
+                                1 << 16));
+        
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeByte(SNAPSHOT_VERSION);
+        out.writeInt(size);
+        
+        Node[] nodeStack = new Node[16];
+        char[][] keyStack = new char[16][];
+        int[] indexStack = new int[16];
+        nodeStack[0] = root;
+        keyStack[0] = writeNodeRecord(out, root);
+        int depth = 1;
+        
+        while (depth > 0) {
+            int top = depth - 1;
+            char[] keys = keyStack[top];
+            
+            if (indexStack[top] == keys.length) {
+                nodeStack[top] = null;
+                keyStack[top] = null;
+                indexStack[top] = 0;
+                depth--;
+                continue;
+            }
+            
+            char key = keys[indexStack[top]++];
+            Node child = nodeStack[top].childMap.get(key);
+            out.writeChar(key);
+            
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                keyStack = Arrays.copyOf(keyStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = child;
+            keyStack[depth] = writeNodeRecord(out, child);
+            depth++;
+        }
+        
+        out.flush();
+        out.writeLong(checksum.getValue());
+        out.flush();
+    }
+    
+    /**
+     * Reads a tree from a snapshot written by 
+     * {@link #writeSnapshot(OutputStream)}. Each child container is created 
+     * once with all its children, so it is sized exactly, and the subtree 
+     * counts and weights are computed on the way up. The tree read has no 
+     * alphabet.
+     * 
+     * @param inputStream the stream to read the snapshot from. Not closed.
+     * @return the tree read from the snapshot.
+     * @throws IOException if reading fails or the snapshot is corrupt.
+     */
+    public static PrefixTree readSnapshot(InputStream inputStream) 
+            throws IOException {
+        Objects.requireNonNull(inputStream, "The input stream is null.");
+        CRC32 checksum = new CRC32();
+        DataInputStream in = 
+                new DataInputStream(
+                        new CheckedInputStream(
+                                new BufferedInputStream(inputStream, 1 << 16), 
+                                checksum));
+        
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a prefix tree snapshot.");
+        }
+        
+        int version = in.readUnsignedByte();
+        
+        if (version != SNAPSHOT_VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        
+        PrefixTree tree = new PrefixTree();
+        int size = in.readInt();
+        
+        // The children of nodeStack[d] are buffered in keyStack[d] and 
+        // childStack[d] until all of them are read:
+        Node[] nodeStack = new Node[16];
+        char[][] keyStack = new char[16][];
+        Node[][] childStack = new Node[16][];
+        int[] indexStack = new int[16];
+        int[] childCountStack = new int[16];
+        nodeStack[0] = tree.root;
+        childCountStack[0] = readNodeRecord(in, tree.root);
+        int depth = 1;
+        
+        while (depth > 0) {
+            int top = depth - 1;
+            Node node = nodeStack[top];
+            int index = indexStack[top];
+            int childCount = childCountStack[top];
+            
+            if (keyStack[top] == null || keyStack[top].length < childCount) {
+                keyStack[top] = new char[childCount];
+                childStack[top] = new Node[childCount];
+            }
+            
+            if (index == childCount) {
+                if (childCount > 0) {
+                    node.childMap = new CharMap<>(keyStack[top], 
+                                                  childStack[top], 
+                                                  childCount);
+                    Arrays.fill(childStack[top], 0, childCount, null);
+                } else if (!node.representsString && node != tree.root) {
+                    throw new IOException(
+                            "Corrupt snapshot: a leaf with no string.");
+                }
+                
+                node.maxWeight = computeMaxWeight(node);
+                node.count = computeCount(node);
+                nodeStack[top] = null;
+                depth--;
+                continue;
+            }
+            
+            char key = in.readChar();
+            
+            if (index > 0 && key <= keyStack[top][index - 1]) {
+                throw new IOException(
+                        "Corrupt snapshot: the child labels are not sorted.");
+            }
+            
+            Node child = new Node();
+            child.parent = node;
+            keyStack[top][index] = key;
+            childStack[top][index] = child;
+            indexStack[top] = index + 1;
+            
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                keyStack = Arrays.copyOf(keyStack, 2 * depth);
+                childStack = Arrays.copyOf(childStack, 2 * depth);
+                indexStack = Arrays.copyOf(indexStack, 2 * depth);
+                childCountStack = Arrays.copyOf(childCountStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = child;
+            indexStack[depth] = 0;
+            childCountStack[depth] = readNodeRecord(in, child);
+            depth++;
+        }
+        
+        long expectedChecksum = checksum.getValue();
+        
+        if (in.readLong() != expectedChecksum) {
+            throw new IOException("Corrupt snapshot: checksum mismatch.");
+        }
+        
+        if (tree.root.count != size) {
+            throw new IOException("Corrupt snapshot: " + tree.root.count 
+                    + " strings instead of " + size + ".");
+        }
+        
+        tree.size = size;
+        return tree;
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return new CompletionIterator(root, "");
+    }
+    
+    /**
+     * Returns a spliterator over the strings in this tree that splits on 
+     * child subtrees, for the parallel scans of the entire tree.
+     * 
+     * @return the spliterator.
+     */
+    @Override
+    public Spliterator<String> spliterator() {
+        return new PrefixTreeSpliterator(root, "");
+    }
+    
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    public Stream<String> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+    
+    /**
+     * Returns the prefix nodes of the sorted {@code prefixes}, or 
+     * {@code null}s for the absent ones. Each walk resumes from the node of 
+     * the longest common prefix with the previous string.
+     */
+    private Node[] getPrefixNodes(String[] prefixes) {
+        Node[] prefixNodes = new Node[prefixes.length];
+        Node[] path = new Node[8];
+        path[0] = root;
+        
+        // path[0 .. pathLength] are the nodes of the previous prefix:
+        int pathLength = 0;
+        String previous = "";
+        
+        for (int i = 0; i < prefixes.length; ++i) {
+            String prefix = prefixes[i];
+            int depth = Math.min(pathLength, 
+                                 commonPrefixLength(previous, prefix));
+            Node node = path[depth];
+            
+            if (path.length <= prefix.length()) {
+                path = Arrays.copyOf(path, 
+                                     Math.max(2 * path.length, 
+                                              prefix.length() + 1));
+            }
+            
+            while (depth < prefix.length() && node.childMap != null) {
+                Node child = node.childMap.get(prefix.charAt(depth));
+                
+                if (child == null) {
+                    break;
+                }
+                
+                node = child;
+                path[++depth] = node;
+            }
+            
+            pathLength = depth;
+            previous = prefix;
+            prefixNodes[i] = depth == prefix.length() ? node : null;
+        }
+        
+        return prefixNodes;
+    }
+    
+    /**
+     * Returns the number of the strings a traversal from {@code node} 
+     * produces before reaching the node of {@code s}, whose first 
+     * {@code fromIndex} characters lead to {@code node}. Each sibling 
+     * preceding the path is skipped by its count.
+     */
+    private static int countPreceding(Node node, String s, int fromIndex) {
+        int preceding = 0;
+        
+        for (int i = fromIndex; i < s.length(); ++i) {
+            if (node.representsString) {
+                preceding++;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            char ch = s.charAt(i);
+            Node next = null;
+            
+            for (int slot = 0, slots = childMap.slotCount(); 
+                    slot < slots; 
+                    ++slot) {
+                Node child = childMap.valueAt(slot);
+                
+                if (child == null) {
+                    continue;
+                }
+                
+                if (childMap.keyAt(slot) == ch) {
+                    next = child;
+                    break;
+                }
+                
+                preceding += child.count;
+            }
+            
+            node = next;
+        }
+        
+        return preceding;
+    }
+    
+    private Node getPrefixNode(String s) {
+        Node node = root;
+        
+        for (int i = 0, len = s.length(); i < len; ++i) {
+            if (node == null || node.childMap == null) {
+                return null;
+            }
+            
+            node = node.childMap.get(s.charAt(i));
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Recomputes the cached maximum subtree weights on the path from 
+     * {@code node} to the root. Stops as soon as a cached value does not 
+     * change.
+     * 
+     * @param node the deepest node whose subtree has changed.
+     */
+    private static void updateMaxWeights(Node node) {
+        while (node != null) {
+            long maxWeight = computeMaxWeight(node);
+            
+            if (maxWeight == node.maxWeight) {
+                return;
+            }
+            
+            node.maxWeight = maxWeight;
+            node = node.parent;
+        }
+    }
+    
+    private static void updateCounts(Node node, int delta) {
+        while (node != null) {
+            node.count += delta;
+            node = node.parent;
+        }
+    }
+    
+    private static int computeCount(Node node) {
+        int count = node.representsString ? 1 : 0;
+        
+        if (node.childMap == null) {
+            return count;
+        }
+        
+        CharMap<Node> childMap = node.childMap;
+        
+        for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+            Node child = childMap.valueAt(i);
+            
+            if (child != null) {
+                count += child.count;
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Writes the record of {@code node} without its children.
+     * 
+     * @return the labels of the children in ascending order.
+     */
+    private static char[] writeNodeRecord(DataOutputStream out, Node node) 
+            throws IOException {
+        boolean weighted = node.representsString 
+                        && node.weight != DEFAULT_WEIGHT;
+        out.writeByte((node.representsString ? REPRESENTS_STRING_FLAG : 0) 
+                    | (weighted ? WEIGHTED_FLAG : 0));
+        
+        if (weighted) {
+            out.writeLong(node.weight);
+        }
+        
+        char[] keys = node.childMap == null ? 
+                      NO_KEYS : 
+                      getSortedKeys(node.childMap);
+        
+        // The fan-out is usually tiny, so it takes a byte or two:
+        int childCount = keys.length;
+        
+        while (childCount >= 0x80) {
+            out.writeByte(childCount & 0x7f | 0x80);
+            childCount >>>= 7;
+        }
+        
+        out.writeByte(childCount);
+        return keys;
+    }
+    
+    /**
+     * Reads the record of {@code node} written by 
+     * {@link #writeNodeRecord(DataOutputStream, Node)}.
+     * 
+     * @return the number of the children of {@code node}.
+     */
+    private static int readNodeRecord(DataInputStream in, Node node) 
+            throws IOException {
+        int flags = in.readUnsignedByte();
+        
+        if ((flags & ~(REPRESENTS_STRING_FLAG | WEIGHTED_FLAG)) != 0) {
+            throw new IOException("Corrupt snapshot: bad flags " + flags + ".");
+        }
+        
+        node.representsString = (flags & REPRESENTS_STRING_FLAG) != 0;
+        node.weight = (flags & WEIGHTED_FLAG) != 0 ? 
+                      in.readLong() : 
+                      DEFAULT_WEIGHT;
+        
+        int childCount = 0;
+        
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            childCount |= (b & 0x7f) << shift;
+            
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            
+            if (shift > 14) {
+                throw new IOException("Corrupt snapshot: bad child count.");
+            }
+        }
+        
+        if (childCount > Character.MAX_VALUE + 1) {
+            throw new IOException(
+                    "Corrupt snapshot: " + childCount + " children.");
+        }
+        
+        return childCount;
+    }
+    
+    private static long computeMaxWeight(Node node) {
+        long maxWeight = node.representsString ? node.weight : NO_WEIGHT;
+        
+        if (node.childMap == null) {
+            return maxWeight;
+        }
+        
+        CharMap<Node> childMap = node.childMap;
+        
+        for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+            Node child = childMap.valueAt(i);
+            
+            if (child != null) {
+                maxWeight = Math.max(maxWeight, child.maxWeight);
+            }
+        }
+        
+        return maxWeight;
+    }
+    
+    /**
+     * Collects the nodes within the distance {@code maxEdits} from 
+     * {@code prefix} in the subtree of {@code node}, whose Levenshtein row is
+     * {@code rows[depth]}, the depth being the length of the string built so
+     * far in {@code stringBuilder}. A node is recorded only if it is closer 
+     * than the closest recorded ancestor, whose distance is 
+     * {@code ancestorDistance}, as otherwise the completions of the ancestor 
+     * cover its own.
+     */
+    private static void collectFuzzyMatches(Node node, 
+                                            int[][] rows, 
+                                            String prefix,
+                                            int maxEdits,
+                                            int ancestorDistance,
+                                            StringBuilder stringBuilder, 
+                                            List<FuzzyMatch> matches) {
+        int depth = stringBuilder.length();
+        int[] row = rows[depth];
+        int distance = row[prefix.length()];
+        
+        if (distance <= maxEdits && distance < ancestorDistance) {
+            matches.add(
+                    new FuzzyMatch(node, stringBuilder.toString(), distance));
+            ancestorDistance = distance;
+        }
+        
+        CharMap<Node> childMap = node.childMap;
+        
+        if (childMap == null || ancestorDistance == 0) {
+            return;
+        }
+        
+        int[] childRow = rows[depth + 1];
+        
+        for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+            Node child = childMap.valueAt(i);
+            
+            if (child == null) {
+                continue;
+            }
+            
+            char ch = childMap.keyAt(i);
+            int minimum = childRow[0] = row[0] + 1;
+            
+            for (int j = 1; j < row.length; ++j) {
+                int substitutionCost = prefix.charAt(j - 1) == ch ? 0 : 1;
+                
+                childRow[j] = Math.min(
+                        Math.min(childRow[j - 1], row[j]) + 1,
+                        row[j - 1] + substitutionCost);
+                
+                minimum = Math.min(minimum, childRow[j]);
+            }
+            
+            if (minimum <= maxEdits) {
+                stringBuilder.append(ch);
+                collectFuzzyMatches(child, 
+                                    rows, 
+                                    prefix,
+                                    maxEdits, 
+                                    ancestorDistance, 
+                                    stringBuilder, 
+                                    matches);
+                stringBuilder.setLength(stringBuilder.length() - 1);
+            }
+        }
+    }
+    
+    private static char[] getSortedKeys(CharMap<Node> childMap) {
+        char[] keys = new char[childMap.size()];
+        int index = 0;
+        
+        for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+            if (childMap.valueAt(i) != null) {
+                keys[index++] = childMap.keyAt(i);
+            }
+        }
+        
+        if (!childMap.isSorted()) {
+            Arrays.sort(keys);
+        }
+        
+        return keys;
+    }
+    
+    private static int commonPrefixLength(String s1, String s2) {
+        int length = Math.min(s1.length(), s2.length());
+        int i = 0;
+        
+        while (i < length && s1.charAt(i) == s2.charAt(i)) {
+            ++i;
+        }
+        
+        return i;
+    }
+    
+    private static void checkLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+    }
+    
+    /**
+     * This iterator traverses a subtree depth-first, keeping the path to the
+     * current node on an explicit stack and the current string in a single
+     * shared {@link StringBuilder}.
+     */
+    private final class CompletionIterator implements Iterator<String> {
+        
+        private final int expectedModCount = PrefixTree.this.modCount;
+        private final StringBuilder stringBuilder;
+        private Node[] nodeStack = new Node[8];
+        private int[] slotStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        CompletionIterator(Node startNode, String prefix) {
+            stringBuilder = new StringBuilder(prefix);
+            
+            if (startNode != null) {
+                nodeStack[0] = startNode;
+                depth = 1;
+                
+                if (startNode.representsString) {
+                    nextString = prefix;
+                    computed = true;
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            checkForComodification();
+            
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                CharMap<Node> childMap = nodeStack[top].childMap;
+                int slot = slotStack[top];
+                Node child = null;
+                
+                if (childMap != null) {
+                    for (int slots = childMap.slotCount(); 
+                            slot < slots; 
+                            ++slot) {
+                        child = childMap.valueAt(slot);
+                        
+                        if (child != null) {
+                            break;
+                        }
+                    }
+                }
+                
+                if (child == null) {
+                    // The node on top is exhausted. Backtrack:
+                    nodeStack[top] = null;
+                    
+                    if (--depth > 0) {
+                        stringBuilder.setLength(stringBuilder.length() - 1);
+                    }
+                    
+                    continue;
+                }
+                
+                slotStack[top] = slot + 1;
+                stringBuilder.append(childMap.keyAt(slot));
+                push(child);
+                
+                if (child.representsString) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Skips the first {@code offset} strings, which must be fewer than 
+         * the strings in the subtree, by descending only into the subtrees 
+         * containing the next string. Called before the traversal starts.
+         */
+        void skip(int offset) {
+            if (offset == 0) {
+                return;
+            }
+            
+            if (nodeStack[0].representsString) {
+                offset--;
+            }
+            
+            nextString = null;
+            computed = false;
+            
+            while (true) {
+                int top = depth - 1;
+                CharMap<Node> childMap = nodeStack[top].childMap;
+                int slot = 0;
+                Node child;
+                
+                while (true) {
+                    child = childMap.valueAt(slot);
+                    
+                    if (child != null && child.count > offset) {
+                        break;
+                    }
+                    
+                    if (child != null) {
+                        offset -= child.count;
+                    }
+                    
+                    ++slot;
+                }
+                
+                slotStack[top] = slot + 1;
+                stringBuilder.append(childMap.keyAt(slot));
+                push(child);
+                
+                if (child.representsString) {
+                    if (offset == 0) {
+                        nextString = stringBuilder.toString();
+                        computed = true;
+                        return;
+                    }
+                    
+                    offset--;
+                }
+            }
+        }
+        
+        private void push(Node node) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                slotStack = Arrays.copyOf(slotStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = node;
+            slotStack[depth] = 0;
+            depth++;
+        }
+        
+        private void checkForComodification() {
+            if (PrefixTree.this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+    
+    /**
+     * This task collects the strings in the subtree of a node. If the subtree
+     * holds more strings than the threshold, it forks one subtask per child 
+     * and concatenates their results in the child order.
+     */
+    private final class AutocompleteTask extends RecursiveTask<List<String>> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Node node;
+        private final String string;
+        private final int threshold;
+        
+        AutocompleteTask(Node node, String string, int threshold) {
+            this.node = node;
+            this.string = string;
+            this.threshold = threshold;
+        }
+        
+        @Override
+        protected List<String> compute() {
+            CharMap<Node> childMap = node.childMap;
+            
+            if (node.count <= threshold || childMap == null) {
+                List<String> autocompleteStrings = new ArrayList<>();
+                Iterator<String> iterator = 
+                        new CompletionIterator(node, string);
+                
+                while (iterator.hasNext()) {
+                    autocompleteStrings.add(iterator.next());
+                }
+                
+                return autocompleteStrings;
+            }
+            
+            List<AutocompleteTask> subtasks = 
+                    new ArrayList<>(childMap.size());
+            
+            for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+                Node child = childMap.valueAt(i);
+                
+                if (child != null) {
+                    subtasks.add(
+                            new AutocompleteTask(
+                                    child, 
+                                    string + childMap.keyAt(i), 
+                                    threshold));
+                }
+            }
+            
+            if (subtasks.size() > 1) {
+                invokeAll(subtasks);
+            } else {
+                subtasks.get(0).invoke();
+            }
+            
+            List<String> autocompleteStrings = new ArrayList<>();
+            
+            if (node.representsString) {
+                autocompleteStrings.add(string);
+            }
+            
+            for (AutocompleteTask subtask : subtasks) {
+                autocompleteStrings.addAll(subtask.join());
+            }
+            
+            return autocompleteStrings;
+        }
+    }
+    
+    /**
+     * This class maintains the path of the previous string for 
+     * {@link #addAllSorted(java.util.Iterator)}. The new children of each 
+     * node on the path are buffered in ascending order, and moved into an 
+     * exactly sized child container once the node is complete, that is, it 
+     * leaves the path. The cached maximum weights are recomputed at the same 
+     * time, bottom-up.
+     */
+    private final class SortedLoader {
+        
+        // path[d] is the node reached by the first 'd' characters of the 
+        // previous string:
+        private Node[] path = new Node[16];
+        private char[][] pendingKeys = new char[16][];
+        private Node[][] pendingNodes = new Node[16][];
+        private int[] pendingSizes = new int[16];
+        private int pathLength;
+        
+        SortedLoader() {
+            path[0] = root;
+        }
+        
+        /**
+         * Extends the path, kept up to the depth {@code depth}, with the rest
+         * of {@code s}.
+         * 
+         * @return the node of {@code s}.
+         */
+        Node extend(String s, int depth) {
+            ensureCapacity(s.length() + 1);
+            Node node = path[depth];
+            
+            for (int d = depth; d < s.length(); ++d) {
+                char ch = s.charAt(d);
+                Node child = node.childMap == null ? 
+                             null : 
+                             node.childMap.get(ch);
+                
+                if (child == null) {
+                    child = new Node();
+                    child.parent = node;
+                    addPending(d, ch, child);
+                }
+                
+                path[d + 1] = child;
+                pendingSizes[d + 1] = 0;
+                node = child;
+            }
+            
+            pathLength = s.length();
+            return node;
+        }
+        
+        /**
+         * Completes the nodes on the path at depth {@code depth} and deeper.
+         */
+        void complete(int depth) {
+            for (int d = pathLength; d >= depth; --d) {
+                Node node = path[d];
+                int pendingSize = pendingSizes[d];
+                
+                if (pendingSize > 0) {
+                    if (node.childMap == null && alphabet == null) {
+                        node.childMap = new CharMap<>(pendingKeys[d], 
+                                                      pendingNodes[d],
+                                                      pendingSize);
+                    } else {
+                        if (node.childMap == null) {
+                            node.childMap = new CharMap<>(alphabet);
+                        }
+                        
+                        for (int i = 0; i < pendingSize; ++i) {
+                            node.childMap.put(pendingKeys[d][i], 
+                                              pendingNodes[d][i]);
+                        }
+                    }
+                    
+                    Arrays.fill(pendingNodes[d], 0, pendingSize, null);
+                    pendingSizes[d] = 0;
+                }
+                
+                node.maxWeight = computeMaxWeight(node);
+                node.count = computeCount(node);
+                path[d] = d == 0 ? root : null;
+            }
+            
+            pathLength = depth - 1;
+        }
+        
+        private void addPending(int depth, char key, Node node) {
+            int pendingSize = pendingSizes[depth];
+            
+            if (pendingKeys[depth] == null) {
+                pendingKeys[depth] = new char[4];
+                pendingNodes[depth] = new Node[4];
+            } else if (pendingSize == pendingKeys[depth].length) {
+                pendingKeys[depth] = 
+                        Arrays.copyOf(pendingKeys[depth], 2 * pendingSize);
+                pendingNodes[depth] = 
+                        Arrays.copyOf(pendingNodes[depth], 2 * pendingSize);
+            }
+            
+            pendingKeys[depth][pendingSize] = key;
+            pendingNodes[depth][pendingSize] = node;
+            pendingSizes[depth] = pendingSize + 1;
+        }
+        
+        private void ensureCapacity(int capacity) {
+            if (path.length < capacity) {
+                int newCapacity = Math.max(2 * path.length, capacity);
+                path = Arrays.copyOf(path, newCapacity);
+                pendingKeys = Arrays.copyOf(pendingKeys, newCapacity);
+                pendingNodes = Arrays.copyOf(pendingNodes, newCapacity);
+                pendingSizes = Arrays.copyOf(pendingSizes, newCapacity);
+            }
+        }
+    }
+    
+    /**
+     * This spliterator traverses a range of subtrees in order, each one with
+     * a {@link CompletionIterator}. It splits by handing over the leading 
+     * subtrees holding about half of its strings, as told by the subtree 
+     * counts; when a single subtree is left, it first replaces it with the 
+     * string of its root and the subtrees of its children. Only the 
+     * spliterators that have not started traversing a subtree can split.
+     */
+    private final class PrefixTreeSpliterator implements Spliterator<String> {
+        
+        private final int expectedModCount;
+        
+        // The subtrees to traverse and their strings within [index, fence). A
+        // 'null' node stands for the string alone:
+        private Node[] nodes;
+        private String[] strings;
+        private int index;
+        private int fence;
+        
+        private CompletionIterator current;
+        
+        // The number of strings not yet traversed:
+        private int remainingSize;
+        
+        PrefixTreeSpliterator(Node startNode, String prefix) {
+            this.expectedModCount = PrefixTree.this.modCount;
+            this.nodes = new Node[]{ startNode };
+            this.strings = new String[]{ prefix };
+            this.fence = startNode == null ? 0 : 1;
+            this.remainingSize = startNode == null ? 0 : startNode.count;
+        }
+        
+        private PrefixTreeSpliterator(Node[] nodes, 
+                                      String[] strings, 
+                                      int index, 
+                                      int fence, 
+                                      int remainingSize, 
+                                      int expectedModCount) {
+            this.expectedModCount = expectedModCount;
+            this.nodes = nodes;
+            this.strings = strings;
+            this.index = index;
+            this.fence = fence;
+            this.remainingSize = remainingSize;
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            Objects.requireNonNull(action, "The input action is null.");
+            
+            while (true) {
+                if (current != null) {
+                    if (current.hasNext()) {
+                        checkForComodification();
+                        remainingSize--;
+                        action.accept(current.next());
+                        return true;
+                    }
+                    
+                    current = null;
+                }
+                
+                if (index == fence) {
+                    return false;
+                }
+                
+                Node node = nodes[index];
+                String string = strings[index];
+                index++;
+                
+                if (node == null) {
+                    checkForComodification();
+                    remainingSize--;
+                    action.accept(string);
+                    return true;
+                }
+                
+                current = new CompletionIterator(node, string);
+            }
+        }
+        
+        @Override
+        public Spliterator<String> trySplit() {
+            if (current != null) {
+                return null;
+            }
+            
+            if (fence - index == 1) {
+                expand();
+            }
+            
+            if (fence - index < 2) {
+                return null;
+            }
+            
+            // Both the parts get at least one entry:
+            int prefixSize = getSize(index);
+            int middle = index + 1;
+            
+            while (middle < fence - 1 
+                    && prefixSize + getSize(middle) <= remainingSize / 2) {
+                prefixSize += getSize(middle++);
+            }
+            
+            PrefixTreeSpliterator prefixSpliterator = 
+                    new PrefixTreeSpliterator(nodes, 
+                                              strings, 
+                                              index, 
+                                              middle, 
+                                              prefixSize, 
+                                              expectedModCount);
+            index = middle;
+            remainingSize -= prefixSize;
+            return prefixSpliterator;
+        }
+        
+        @Override
+        public long estimateSize() {
+            return remainingSize;
+        }
+        
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED 
+                 | Spliterator.DISTINCT 
+                 | Spliterator.NONNULL
+                 | Spliterator.SIZED
+                 | Spliterator.SUBSIZED;
+        }
+        
+        private int getSize(int index) {
+            return nodes[index] == null ? 1 : nodes[index].count;
+        }
+        
+        private void expand() {
+            Node node = nodes[index];
+            String string = strings[index];
+            
+            if (node == null) {
+                return;
+            }
+            
+            // Skip the chain of single-child nodes without strings:
+            while (!node.representsString 
+                    && node.childMap != null 
+                    && node.childMap.size() == 1) {
+                CharMap<Node> childMap = node.childMap;
+                int slot = 0;
+                
+                while (childMap.valueAt(slot) == null) {
+                    ++slot;
+                }
+                
+                string += childMap.keyAt(slot);
+                node = childMap.valueAt(slot);
+            }
+            
+            if (node.childMap == null) {
+                nodes[index] = node;
+                strings[index] = string;
+                return;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            int length = childMap.size() + (node.representsString ? 1 : 0);
+            int i = 0;
+            
+            nodes = new Node[length];
+            strings = new String[length];
+            
+            if (node.representsString) {
+                strings[i++] = string;
+            }
+            
+            for (int slot = 0, slots = childMap.slotCount(); 
+                    slot < slots; 
+                    ++slot) {
+                Node child = childMap.valueAt(slot);
+                
+                if (child != null) {
+                    nodes[i] = child;
+                    strings[i] = string + childMap.keyAt(slot);
+                    ++i;
+                }
+            }
+            
+            index = 0;
+            fence = length;
+        }
+        
         private void checkForComodification() {
             if (PrefixTree.this.modCount != expectedModCount) {
                 throw new ConcurrentModificationException();
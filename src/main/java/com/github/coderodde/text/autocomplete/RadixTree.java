@@ -0,0 +1,444 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements a path-compressed prefix tree, also known as a radix
+ * tree or a Patricia trie (https://en.wikipedia.org/wiki/Radix_tree). Each
+ * chain of single-child nodes is stored as one edge labeled with a string, so
+ * long unique tails cost a single node instead of one node per character.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public class RadixTree implements AutocompleteEngine {
+    
+    private static final class Node {
+        
+        // The label of the edge leading to this node. Empty for the root:
+        String label;
+        
+        // Maps the first character of each child label to the child:
+        CharMap<Node> childMap;
+        Node parent;
+        boolean representsString;
+        
+        Node(String label) {
+            this.label = label;
+        }
+    }
+    
+    private final Node root = new Node("");
+    private int size;
+    private int modCount;
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this tree: the nodes,
+     * their child maps and their edge labels. Runs in time linear in the 
+     * number of nodes.
+     *
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        long nodeSize = MemoryFootprint.objectSize(1, 3);
+        long footprint = MemoryFootprint.objectSize(2 * Integer.BYTES, 1);
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        nodeStack.push(root);
+        
+        while (!nodeStack.isEmpty()) {
+            Node node = nodeStack.pop();
+            footprint += nodeSize + MemoryFootprint.stringSize(node.label);
+            
+            if (node.childMap == null) {
+                continue;
+            }
+            
+            CharMap<Node> childMap = node.childMap;
+            footprint += childMap.memoryFootprint();
+            
+            for (int i = 0, slots = childMap.slotCount(); i < slots; ++i) {
+                Node child = childMap.valueAt(i);
+                
+                if (child != null) {
+                    nodeStack.push(child);
+                }
+            }
+        }
+        
+        return footprint;
+    }
+    
+    @Override
+    public void clear() {
+        root.childMap = null;
+        root.representsString = false;
+        size = 0;
+        modCount++;
+    }
+    
+    @Override
+    public boolean add(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = root;
+        int index = 0;
+        
+        while (index < s.length()) {
+            if (node.childMap == null) {
+                node.childMap = new CharMap<>();
+            }
+            
+            Node child = node.childMap.get(s.charAt(index));
+            
+            if (child == null) {
+                // No edge starts with the next character. Attach the entire
+                // remaining suffix as a single leaf:
+                Node leaf = new Node(s.substring(index));
+                leaf.parent = node;
+                leaf.representsString = true;
+                node.childMap.put(leaf.label.charAt(0), leaf);
+                size++;
+                modCount++;
+                return true;
+            }
+            
+            int commonLength =
+                    commonPrefixLength(child.label, s, index);
+            
+            if (commonLength < child.label.length()) {
+                child = splitEdge(child, commonLength);
+            }
+            
+            node = child;
+            index += commonLength;
+        }
+        
+        if (node.representsString) {
+            // The input string is already present in this radix tree:
+            return false;
+        }
+        
+        node.representsString = true;
+        size++;
+        modCount++;
+        return true;
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = getNode(s);
+        return node != null && node.representsString;
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        Node node = getNode(s);
+        
+        if (node == null || !node.representsString) {
+            return false;
+        }
+        
+        node.representsString = false;
+        size--;
+        modCount++;
+        
+        if (node == root) {
+            return true;
+        }
+        
+        if (node.childMap == null) {
+            Node parent = node.parent;
+            parent.childMap.remove(node.label.charAt(0));
+            node.parent = null;
+            
+            if (parent.childMap.isEmpty()) {
+                parent.childMap = null;
+            }
+            
+            node = parent;
+        }
+        
+        if (node != root
+                && !node.representsString
+                && node.childMap != null
+                && node.childMap.size() == 1) {
+            mergeWithOnlyChild(node);
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public List<String> autocomplete(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        
+        StringBuilder stringBuilder = new StringBuilder(prefix);
+        Node node = getPrefixNode(prefix, stringBuilder);
+        
+        if (node == null) {
+            return Collections.<String>emptyList();
+        }
+        
+        List<String> autocompleteStrings = new ArrayList<>();
+        Iterator<String> iterator =
+                new RadixTreeIterator(node, stringBuilder);
+        
+        while (iterator.hasNext()) {
+            autocompleteStrings.add(iterator.next());
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    @Override
+    public Iterator<String> iterator() {
+        return new RadixTreeIterator(root, new StringBuilder());
+    }
+    
+    /**
+     * Splits the edge leading to {@code node} after {@code length} characters
+     * and returns the new node in the middle of the edge.
+     */
+    private static Node splitEdge(Node node, int length) {
+        Node middle = new Node(node.label.substring(0, length));
+        Node parent = node.parent;
+        
+        middle.parent = parent;
+        middle.childMap = new CharMap<>();
+        parent.childMap.put(middle.label.charAt(0), middle);
+        
+        node.label = node.label.substring(length);
+        node.parent = middle;
+        middle.childMap.put(node.label.charAt(0), node);
+        return middle;
+    }
+    
+    /**
+     * Merges {@code node} with its only child, concatenating the two edge
+     * labels.
+     */
+    private static void mergeWithOnlyChild(Node node) {
+        CharMap<Node> childMap = node.childMap;
+        Node child = null;
+        
+        for (int i = 0; child == null; ++i) {
+            child = childMap.valueAt(i);
+        }
+        
+        Node parent = node.parent;
+        child.label = node.label + child.label;
+        child.parent = parent;
+        parent.childMap.put(child.label.charAt(0), child);
+        node.parent = null;
+        node.childMap = null;
+    }
+    
+    private static int commonPrefixLength(String label, String s, int index) {
+        int length = Math.min(label.length(), s.length() - index);
+        int i = 0;
+        
+        while (i < length && label.charAt(i) == s.charAt(index + i)) {
+            ++i;
+        }
+        
+        return i;
+    }
+    
+    /**
+     * Returns the node representing exactly {@code s} or {@code null} if
+     * {@code s} ends in the middle of an edge or is not on any path.
+     */
+    private Node getNode(String s) {
+        Node node = root;
+        int index = 0;
+        
+        while (index < s.length()) {
+            if (node.childMap == null) {
+                return null;
+            }
+            
+            node = node.childMap.get(s.charAt(index));
+            
+            if (node == null || !s.startsWith(node.label, index)) {
+                return null;
+            }
+            
+            index += node.label.length();
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Returns the topmost node whose path starts with {@code prefix}, and
+     * extends {@code stringBuilder}, holding {@code prefix}, to the path
+     * string of that node.
+     */
+    private Node getPrefixNode(String prefix, StringBuilder stringBuilder) {
+        Node node = root;
+        int index = 0;
+        
+        while (index < prefix.length()) {
+            if (node.childMap == null) {
+                return null;
+            }
+            
+            node = node.childMap.get(prefix.charAt(index));
+            
+            if (node == null) {
+                return null;
+            }
+            
+            int commonLength = commonPrefixLength(node.label, prefix, index);
+            
+            if (commonLength == prefix.length() - index) {
+                // The prefix ends within or at the end of the edge:
+                stringBuilder.append(node.label,
+                                     commonLength,
+                                     node.label.length());
+                return node;
+            }
+            
+            if (commonLength < node.label.length()) {
+                return null;
+            }
+            
+            index += commonLength;
+        }
+        
+        return node;
+    }
+    
+    /**
+     * This iterator traverses a subtree depth-first, appending and truncating
+     * the edge labels in a single shared {@link StringBuilder}.
+     */
+    private final class RadixTreeIterator implements Iterator<String> {
+        
+        private final int expectedModCount = RadixTree.this.modCount;
+        private final StringBuilder stringBuilder;
+        private Node[] nodeStack = new Node[8];
+        private int[] slotStack = new int[8];
+        private int depth;
+        private String nextString;
+        private boolean computed;
+        
+        RadixTreeIterator(Node startNode, StringBuilder stringBuilder) {
+            this.stringBuilder = stringBuilder;
+            nodeStack[0] = startNode;
+            depth = 1;
+            
+            if (startNode.representsString) {
+                nextString = stringBuilder.toString();
+                computed = true;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (!computed) {
+                computeNext();
+            }
+            
+            return nextString != null;
+        }
+        
+        @Override
+        public String next() {
+            checkForComodification();
+            
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            String string = nextString;
+            nextString = null;
+            computed = false;
+            return string;
+        }
+        
+        private void computeNext() {
+            computed = true;
+            
+            while (depth > 0) {
+                int top = depth - 1;
+                Node node = nodeStack[top];
+                CharMap<Node> childMap = node.childMap;
+                int slot = slotStack[top];
+                Node child = null;
+                
+                if (childMap != null) {
+                    for (int slots = childMap.slotCount();
+                            slot < slots;
+                            ++slot) {
+                        child = childMap.valueAt(slot);
+                        
+                        if (child != null) {
+                            break;
+                        }
+                    }
+                }
+                
+                if (child == null) {
+                    // The node on top is exhausted. Backtrack:
+                    nodeStack[top] = null;
+                    
+                    if (--depth > 0) {
+                        stringBuilder.setLength(
+                                stringBuilder.length() - node.label.length());
+                    }
+                    
+                    continue;
+                }
+                
+                slotStack[top] = slot + 1;
+                stringBuilder.append(child.label);
+                push(child);
+                
+                if (child.representsString) {
+                    nextString = stringBuilder.toString();
+                    return;
+                }
+            }
+        }
+        
+        private void push(Node node) {
+            if (depth == nodeStack.length) {
+                nodeStack = Arrays.copyOf(nodeStack, 2 * depth);
+                slotStack = Arrays.copyOf(slotStack, 2 * depth);
+            }
+            
+            nodeStack[depth] = node;
+            slotStack[depth] = 0;
+            depth++;
+        }
+        
+        private void checkForComodification() {
+            if (RadixTree.this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.github.coderodde.text.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class implements an autocomplete engine over a sorted array of
+ * strings. The strings are not kept as {@link String} objects but packed one
+ * after another into a single {@code char} array, with an {@code int} array
+ * of the start offsets, so each string costs its characters plus four bytes.
+ * The strings starting with a prefix form a contiguous range, found with two
+ * binary searches, so a query takes {@code O(log n + k)} comparisons for
+ * {@code k} completions and touches memory sequentially.
+ *
+ * <p>Adding or removing a single string shifts the tail of the arrays and
+ * takes linear time, so this engine is meant for dictionaries that are loaded
+ * once, preferably via {@link #addAll(Iterable)}, and then mostly queried.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class SortedStringArray implements AutocompleteEngine {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    // The strings in sorted order, concatenated:
+    private char[] characters;
+    
+    // The string 'i' occupies 'characters[offsets[i]]' through
+    // 'characters[offsets[i + 1] - 1]':
+    private int[] offsets;
+    private int size;
+    private int modCount;
+    
+    public SortedStringArray() {
+        initialize();
+    }
+    
+    public SortedStringArray(Iterable<String> strings) {
+        this();
+        addAll(strings);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Returns an estimate of the heap bytes retained by this engine, that
+     * is, by its two arrays, the spare capacity included.
+     *
+     * @return the estimated size in bytes.
+     */
+    @Override
+    public long memoryFootprint() {
+        return MemoryFootprint.objectSize(2 * Integer.BYTES, 2)
+                + MemoryFootprint.arraySize(characters.length, Character.BYTES)
+                + MemoryFootprint.arraySize(offsets.length, Integer.BYTES);
+    }
+    
+    @Override
+    public void clear() {
+        initialize();
+        size = 0;
+        modCount++;
+    }
+    
+    @Override
+    public boolean add(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int index = lowerBound(s);
+        
+        if (index < size && compare(index, s, Integer.MAX_VALUE) == 0) {
+            return false;
+        }
+        
+        int length = s.length();
+        int start = offsets[index];
+        int end = offsets[size];
+        ensureCapacity(end + length, size + 2);
+        
+        // Make room for 's' by shifting the subsequent strings:
+        System.arraycopy(characters,
+                         start,
+                         characters,
+                         start + length,
+                         end - start);
+        
+        for (int i = size; i > index; --i) {
+            offsets[i + 1] = offsets[i] + length;
+        }
+        
+        s.getChars(0, length, characters, start);
+        offsets[index + 1] = start + length;
+        size++;
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * Adds all the strings in {@code strings} by sorting them and merging
+     * them with the stored strings in one pass, which takes
+     * {@code O(m log m + n)} time instead of {@code O(mn)}.
+     *
+     * @param strings the strings to add.
+     * @return the number of the strings that were not present.
+     */
+    @Override
+    public int addAll(Iterable<String> strings) {
+        List<String> sortedStrings = new ArrayList<>();
+        long newCharacterCount = 0L;
+        
+        for (String s : strings) {
+            Objects.requireNonNull(s, "The input string is null.");
+            sortedStrings.add(s);
+            newCharacterCount += s.length();
+        }
+        
+        if (sortedStrings.isEmpty()) {
+            return 0;
+        }
+        
+        Collections.sort(sortedStrings);
+        
+        long maximumCharacterCount = offsets[size] + newCharacterCount;
+        long maximumSize = (long) size + sortedStrings.size();
+        
+        if (maximumCharacterCount > Integer.MAX_VALUE - 8
+                || maximumSize + 1 > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many characters to store.");
+        }
+        
+        char[] newCharacters = new char[(int) maximumCharacterCount];
+        int[] newOffsets = new int[(int) maximumSize + 1];
+        int newSize = 0;
+        int newEnd = 0;
+        int index = 0;
+        int added = 0;
+        String previous = null;
+        
+        for (String s : sortedStrings) {
+            if (s.equals(previous)) {
+                continue;
+            }
+            
+            previous = s;
+            
+            // Copy the stored strings preceding 's':
+            while (index < size && compare(index, s, Integer.MAX_VALUE) < 0) {
+                int start = offsets[index];
+                int length = offsets[index + 1] - start;
+                System.arraycopy(characters,
+                                 start,
+                                 newCharacters,
+                                 newEnd,
+                                 length);
+                newEnd += length;
+                newOffsets[++newSize] = newEnd;
+                index++;
+            }
+            
+            if (index < size && compare(index, s, Integer.MAX_VALUE) == 0) {
+                // 's' is already stored, and will be copied with the rest:
+                continue;
+            }
+            
+            s.getChars(0, s.length(), newCharacters, newEnd);
+            newEnd += s.length();
+            newOffsets[++newSize] = newEnd;
+            added++;
+        }
+        
+        // Copy the remaining stored strings:
+        int start = offsets[index];
+        int end = offsets[size];
+        System.arraycopy(characters, start, newCharacters, newEnd, end - start);
+        
+        for (; index < size; ++index) {
+            newEnd += offsets[index + 1] - offsets[index];
+            newOffsets[++newSize] = newEnd;
+        }
+        
+        if (added > 0) {
+            // Drop the room reserved for the duplicates:
+            characters = Arrays.copyOf(newCharacters, newEnd);
+            offsets = Arrays.copyOf(newOffsets, newSize + 1);
+            size = newSize;
+            modCount++;
+        }
+        
+        return added;
+    }
+    
+    @Override
+    public boolean contains(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int index = lowerBound(s);
+        return index < size && compare(index, s, Integer.MAX_VALUE) == 0;
+    }
+    
+    @Override
+    public boolean remove(String s) {
+        Objects.requireNonNull(s, "The input string is null.");
+        int index = lowerBound(s);
+        
+        if (index == size || compare(index, s, Integer.MAX_VALUE) != 0) {
+            return false;
+        }
+        
+        int start = offsets[index];
+        int length = offsets[index + 1] - start;
+        int end = offsets[size];
+        
+        System.arraycopy(characters,
+                         start + length,
+                         characters,
+                         start,
+                         end - start - length);
+        
+        for (int i = index + 1; i < size; ++i) {
+            offsets[i] = offsets[i + 1] - length;
+        }
+        
+        size--;
+        modCount++;
+        return true;
+    }
+    
+    /**
+     * Returns all the strings starting with {@code prefix} in lexicographic
+     * order.
+     *
+     * @param prefix the prefix of the requested strings.
+     * @return the list of the completions.
+     */
+    @Override
+    public List<String> autocomplete(String prefix) {
+        return autocomplete(prefix, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Returns at most {@code limit} strings starting with {@code prefix} in
+     * lexicographic order.
+     *
+     * @param prefix the prefix of the requested strings.
+     * @param limit  the maximum number of strings to return.
+     * @return the list of at most {@code limit} completions.
+     */
+    @Override
+    public List<String> autocomplete(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        
+        int fromIndex = lowerBound(prefix);
+        int toIndex = upperBound(prefix, fromIndex);
+        int length = (int) Math.min((long) toIndex - fromIndex, limit);
+        List<String> autocompleteStrings = new ArrayList<>(length);
+        
+        for (int i = fromIndex; i < fromIndex + length; ++i) {
+            autocompleteStrings.add(getString(i));
+        }
+        
+        return autocompleteStrings;
+    }
+    
+    /**
+     * Returns the number of the strings starting with {@code prefix} in
+     * {@code O(log n)} time.
+     *
+     * @param prefix the prefix to count the strings of.
+     * @return the number of the strings starting with {@code prefix}.
+     */
+    public int countWithPrefix(String prefix) {
+        Objects.requireNonNull(prefix, "The input string is null.");
+        int fromIndex = lowerBound(prefix);
+        return upperBound(prefix, fromIndex) - fromIndex;
+    }
+    
+    /**
+     * Returns an iterator over the strings in lexicographic order.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return new SortedStringArrayIterator();
+    }
+    
+    private void initialize() {
+        characters = new char[INITIAL_CAPACITY];
+        offsets = new int[INITIAL_CAPACITY + 1];
+    }
+    
+    private void ensureCapacity(int characterCount, int offsetCount) {
+        if (characterCount > characters.length) {
+            int newCapacity = Math.max(characterCount, 2 * characters.length);
+            characters = Arrays.copyOf(characters, newCapacity);
+        }
+        
+        if (offsetCount > offsets.length) {
+            int newCapacity = Math.max(offsetCount, 2 * offsets.length);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+        }
+    }
+    
+    private String getString(int index) {
+        int start = offsets[index];
+        return new String(characters, start, offsets[index + 1] - start);
+    }
+    
+    /**
+     * Compares the string at {@code index}, cut to at most
+     * {@code maximumLength} characters, with {@code s} in the order of
+     * {@link String#compareTo(String)}.
+     */
+    private int compare(int index, String s, int maximumLength) {
+        int start = offsets[index];
+        int length = Math.min(offsets[index + 1] - start, maximumLength);
+        int commonLength = Math.min(length, s.length());
+        
+        for (int i = 0; i < commonLength; ++i) {
+            char ch = characters[start + i];
+            char other = s.charAt(i);
+            
+            if (ch != other) {
+                return ch - other;
+            }
+        }
+        
+        return length - s.length();
+    }
+    
+    /**
+     * Returns the index of the first string not less than {@code s}.
+     */
+    private int lowerBound(String s) {
+        int low = 0;
+        int high = size;
+        
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            
+            if (compare(middle, s, Integer.MAX_VALUE) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Returns the index of the first string at or after {@code fromIndex}
+     * that is greater than {@code prefix} and does not start with it. All
+     * the strings between {@code fromIndex} and the returned index start
+     * with {@code prefix}.
+     */
+    private int upperBound(String prefix, int fromIndex) {
+        int low = fromIndex;
+        int high = size;
+        
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            
+            if (compare(middle, prefix, prefix.length()) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        
+        return low;
+    }
+    
+    private final class SortedStringArrayIterator implements Iterator<String> {
+        
+        private final int expectedModCount =
+                SortedStringArray.this.modCount;
+        private int index;
+        
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+        
+        @Override
+        public String next() {
+            checkForComodification();
+            
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more strings to iterate.");
+            }
+            
+            return getString(index++);
+        }
+        
+        private void checkForComodification() {
+            if (SortedStringArray.this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
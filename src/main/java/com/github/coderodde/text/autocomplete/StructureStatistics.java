@@ -0,0 +1,77 @@
+package com.github.coderodde.text.autocomplete;
+
+/**
+ * This class holds a snapshot of the shape of an autocomplete data structure.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6 (Oct 17, 2026)
+ * @since 1.6 (Oct 17, 2026)
+ */
+public final class StructureStatistics {
+    
+    private final int stringCount;
+    private final long nodeCount;
+    private final double averageFanOut;
+    private final int maximumDepth;
+    private final double averageStringLength;
+    
+    StructureStatistics(int stringCount, 
+                        long nodeCount, 
+                        double averageFanOut, 
+                        int maximumDepth, 
+                        double averageStringLength) {
+        this.stringCount = stringCount;
+        this.nodeCount = nodeCount;
+        this.averageFanOut = averageFanOut;
+        this.maximumDepth = maximumDepth;
+        this.averageStringLength = averageStringLength;
+    }
+    
+    public int getStringCount() {
+        return stringCount;
+    }
+    
+    /**
+     * Returns the number of nodes, or of the entries if the structure has no 
+     * nodes.
+     * 
+     * @return the number of nodes.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+    
+    /**
+     * Returns the average number of children of the nodes having children.
+     * 
+     * @return the average fan-out.
+     */
+    public double getAverageFanOut() {
+        return averageFanOut;
+    }
+    
+    /**
+     * Returns the length of the longest path from the root, which is the 
+     * length of the longest string.
+     * 
+     * @return the maximum depth.
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+    
+    public double getAverageStringLength() {
+        return averageStringLength;
+    }
+    
+    @Override
+    public String toString() {
+        return "[strings: " + stringCount
+                + ", nodes: " + nodeCount
+                + ", average fan-out: " + String.format("%.2f", averageFanOut)
+                + ", maximum depth: " + maximumDepth
+                + ", average string length: " 
+                + String.format("%.2f", averageStringLength)
+                + "]";
+    }
+}
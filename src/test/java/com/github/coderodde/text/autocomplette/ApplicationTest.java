@@ -0,0 +1,89 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.Alphabet;
+import com.github.coderodde.text.autocomplete.Application;
+import com.github.coderodde.text.autocomplete.BatchStatistics;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import com.github.coderodde.text.autocomplete.SortedStringArray;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ApplicationTest {
+    
+    @Test
+    public void processBatch() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = 
+                new PrintStream(bytes, false, StandardCharsets.UTF_8);
+        SortedStringArray engine = new SortedStringArray();
+        Application application = new Application(engine, out);
+        String commands = 
+                "add b\n" 
+                + "add a\n" 
+                + "add b\n" 
+                + "\n" 
+                + "contains a\n" 
+                + "remove a\n" 
+                + "remove x\n" 
+                + "contains a\n" 
+                + "add ab\n" 
+                + "add abc\n" 
+                + "remove ab\n" 
+                + "complete a\n" 
+                + "bogus\n" 
+                + "print\n" 
+                + "add z\n";
+        
+        BatchStatistics statistics = 
+                application.processBatch(
+                        new BufferedReader(new StringReader(commands)));
+        
+        assertEquals("true\n" 
+                     + "false\n" 
+                     + "[abc]\n" 
+                     + "ERROR: Unknown command: bogus\n" 
+                     + "[abc, b]\n", 
+                     bytes.toString(StandardCharsets.UTF_8));
+        
+        assertEquals(14, statistics.getCommandCount());
+        assertEquals(5, statistics.getAddedCount());
+        assertEquals(2, statistics.getRemovedCount());
+        assertEquals(4, statistics.getQueryCount());
+        assertEquals(1, statistics.getErrorCount());
+        assertEquals(3, engine.size());
+    }
+    
+    @Test
+    public void processBatchReportsRejectedStrings() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = 
+                new PrintStream(bytes, false, StandardCharsets.UTF_8);
+        PrefixTree engine = new PrefixTree(Alphabet.DIGITS);
+        Application application = new Application(engine, out);
+        String commands = 
+                "add 1\n" 
+                + "add 2x\n" 
+                + "add 3\n" 
+                + "add 1\n" 
+                + "print\n";
+        
+        BatchStatistics statistics = 
+                application.processBatch(
+                        new BufferedReader(new StringReader(commands)));
+        
+        // The rejected string does not stop the batch:
+        assertEquals("ERROR: The character 'x' at index 1 of \"2x\" is not " 
+                     + "in the alphabet \"0123456789\".\n" 
+                     + "[1, 3]\n", 
+                     bytes.toString(StandardCharsets.UTF_8));
+        
+        assertEquals(2, statistics.getAddedCount());
+        assertEquals(1, statistics.getErrorCount());
+    }
+}
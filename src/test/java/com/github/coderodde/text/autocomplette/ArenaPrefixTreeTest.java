@@ -0,0 +1,147 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.ArenaPrefixTree;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArenaPrefixTreeTest {
+    
+    private final ArenaPrefixTree pt = new ArenaPrefixTree();
+    
+    @Before
+    public void before() {
+        pt.clear();
+    }
+    
+    @Test
+    public void addAndContainsString() {
+        assertTrue(pt.add("in"));
+        assertTrue(pt.add("inn"));
+        assertTrue(pt.add("ink"));
+        
+        assertFalse(pt.add("in"));
+        assertFalse(pt.add("inn"));
+        
+        assertTrue(pt.contains("in"));
+        assertTrue(pt.contains("inn"));
+        assertTrue(pt.contains("ink"));
+        assertFalse(pt.contains("i"));
+        assertFalse(pt.contains("inks"));
+        assertEquals(3, pt.size());
+    }
+    
+    @Test
+    public void removeFreesNodes() {
+        pt.add("a");
+        pt.add("abc");
+        pt.add("abd");
+        
+        assertTrue(pt.remove("abc"));
+        assertFalse(pt.remove("abc"));
+        assertFalse(pt.remove("ab"));
+        assertEquals(List.of("a", "abd"), pt.autocomplete(""));
+        
+        assertTrue(pt.remove("abd"));
+        assertTrue(pt.add("ax"));
+        assertEquals(List.of("a", "ax"), pt.autocomplete("a"));
+        assertTrue(pt.autocomplete("ab").isEmpty());
+        
+        pt.remove("a");
+        pt.remove("ax");
+        
+        assertTrue(pt.isEmpty());
+        assertFalse(pt.iterator().hasNext());
+    }
+    
+    @Test
+    public void emptyString() {
+        assertTrue(pt.add(""));
+        assertTrue(pt.contains(""));
+        assertEquals(List.of(""), pt.autocomplete(""));
+        assertTrue(pt.remove(""));
+        assertFalse(pt.contains(""));
+    }
+    
+    @Test
+    public void boundedAutocomplete() {
+        pt.add("b");
+        pt.add("ba");
+        pt.add("bb");
+        pt.add("c");
+        
+        assertEquals(List.of("b", "ba"), pt.autocomplete("b", 2));
+        assertTrue(pt.autocomplete("b", 0).isEmpty());
+        assertEquals(List.of("bb"), pt.autocomplete("bb", 5));
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailsFast() {
+        pt.add("a");
+        pt.add("b");
+        
+        Iterator<String> iterator = pt.iterator();
+        iterator.next();
+        pt.add("c");
+        iterator.next();
+    }
+    
+    @Test
+    public void agreesWithTreeSet() {
+        Random random = new Random(37L);
+        TreeSet<String> set = new TreeSet<>();
+        
+        for (int i = 0; i < 30_000; ++i) {
+            String s = randomString(random);
+            
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(s), pt.remove(s));
+            } else {
+                assertEquals(set.add(s), pt.add(s));
+            }
+            
+            assertEquals(set.size(), pt.size());
+        }
+        
+        List<String> iterated = new ArrayList<>();
+        
+        for (String s : pt) {
+            iterated.add(s);
+        }
+        
+        assertEquals(new ArrayList<>(set), iterated);
+        
+        for (String prefix : List.of("", "a", "ab", "abc", "ddd")) {
+            List<String> expected = new ArrayList<>();
+            
+            for (String s : set.tailSet(prefix)) {
+                if (!s.startsWith(prefix)) {
+                    break;
+                }
+                
+                expected.add(s);
+            }
+            
+            assertEquals(expected, pt.autocomplete(prefix));
+        }
+    }
+    
+    private static String randomString(Random random) {
+        int length = random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        
+        for (int i = 0; i < length; ++i) {
+            sb.append((char)('a' + random.nextInt(4)));
+        }
+        
+        return sb.toString();
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.AutocompleteMetrics;
+import com.github.coderodde.text.autocomplete.AutocompleteSystem;
+import com.github.coderodde.text.autocomplete.Histogram;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import com.github.coderodde.text.autocomplete.StructureStatistics;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class AutocompleteMetricsTest {
+    
+    @Test
+    public void histogramPercentiles() {
+        Histogram histogram = new Histogram();
+        
+        assertEquals(0L, histogram.getValueAtPercentile(99.0));
+        
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value);
+        }
+        
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000L, histogram.getMaximum());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        assertEquals(1L, histogram.getValueAtPercentile(0.0));
+        assertEquals(1000L, histogram.getValueAtPercentile(100.0));
+        
+        long median = histogram.getValueAtPercentile(50.0);
+        long p99 = histogram.getValueAtPercentile(99.0);
+        
+        assertTrue(median >= 500 && median <= 500 * 1.125);
+        assertTrue(p99 >= 990 && p99 <= 1000);
+    }
+    
+    @Test
+    public void prefixTreeRecordsOperations() {
+        PrefixTree pt = new PrefixTree();
+        AutocompleteMetrics metrics = new AutocompleteMetrics(0L);
+        
+        pt.add("nope");
+        pt.setMetrics(metrics);
+        pt.add("a");
+        pt.add("ab");
+        pt.add("abc", 3L);
+        pt.contains("ab");
+        pt.remove("nope");
+        pt.autocomplete("a");
+        pt.autocomplete("x", 5);
+        
+        assertEquals(3L, metrics.getAddCount());
+        assertEquals(1L, metrics.getContainsCount());
+        assertEquals(1L, metrics.getRemoveCount());
+        assertEquals(2L, metrics.getAutocompleteCount());
+        assertEquals(1.5, metrics.getAutocompleteResultSizeMean(), 1e-9);
+        assertEquals(2L, metrics.getSlowAutocompleteCount());
+        assertEquals("x", metrics.getLastSlowAutocompletePrefix());
+        
+        pt.setMetrics(null);
+        pt.contains("a");
+        
+        assertEquals(1L, metrics.getContainsCount());
+    }
+    
+    @Test
+    public void prefixTreeRecordsPagedQueries() {
+        PrefixTree pt = new PrefixTree();
+        AutocompleteMetrics metrics = new AutocompleteMetrics();
+        
+        pt.add("a");
+        pt.add("ab");
+        pt.add("abc");
+        pt.setCacheCapacity(16);
+        pt.setMetrics(metrics);
+        
+        assertEquals(List.of("a", "ab"), pt.autocomplete("a", 0, 2));
+        assertEquals(List.of("abc"), pt.autocomplete("a", 2, 2));
+        
+        // Every page is recorded, and no page goes through the cache:
+        assertEquals(2L, metrics.getAutocompleteCount());
+        assertEquals(1.5, metrics.getAutocompleteResultSizeMean(), 1e-9);
+        assertEquals(0L, pt.getCacheStatistics().getMissCount());
+        assertEquals(0, pt.getCacheStatistics().getSize());
+    }
+    
+    @Test
+    public void structureStatistics() {
+        PrefixTree pt = new PrefixTree();
+        AutocompleteMetrics metrics = new AutocompleteMetrics();
+        
+        pt.setMetrics(metrics);
+        
+        assertNull(metrics.getStructureStatistics());
+        
+        pt.add("ab");
+        pt.add("ac");
+        pt.add("abcd");
+        
+        StructureStatistics statistics = pt.computeStructureStatistics();
+        
+        // The nodes: root, a, ab, ac, abc, abcd.
+        assertEquals(3, statistics.getStringCount());
+        assertEquals(6L, statistics.getNodeCount());
+        assertEquals(5.0 / 4, statistics.getAverageFanOut(), 1e-9);
+        assertEquals(4, statistics.getMaximumDepth());
+        assertEquals(8.0 / 3, statistics.getAverageStringLength(), 1e-9);
+        assertEquals(6L, metrics.getNodeCount());
+        
+        AutocompleteSystem system = new AutocompleteSystem();
+        system.add("ab");
+        system.add("abcd");
+        
+        assertEquals(2L, system.computeStructureStatistics().getNodeCount());
+        assertEquals(4, system.computeStructureStatistics().getMaximumDepth());
+    }
+    
+    @Test
+    public void autocompleteSystemRecordsOperations() {
+        AutocompleteSystem system = new AutocompleteSystem();
+        AutocompleteMetrics metrics = new AutocompleteMetrics();
+        
+        system.setMetrics(metrics);
+        system.add("a");
+        system.contains("a");
+        system.autocomplete("");
+        system.remove("a");
+        
+        assertEquals(1L, metrics.getAddCount());
+        assertEquals(1L, metrics.getContainsCount());
+        assertEquals(1L, metrics.getAutocompleteCount());
+        assertEquals(1L, metrics.getRemoveCount());
+    }
+    
+    @Test
+    public void jmxAttributes() throws Exception {
+        PrefixTree pt = new PrefixTree();
+        AutocompleteMetrics metrics = new AutocompleteMetrics();
+        ObjectName name = 
+                new ObjectName("com.github.coderodde.text.autocomplete:"
+                        + "type=AutocompleteMetrics,name=test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        
+        pt.setMetrics(metrics);
+        metrics.registerMBean(name);
+        
+        try {
+            pt.add("a");
+            pt.computeStructureStatistics();
+            
+            assertEquals(1L, server.getAttribute(name, "AddCount"));
+            assertEquals(1, server.getAttribute(name, "StringCount"));
+            assertEquals(2L, server.getAttribute(name, "NodeCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.AutocompleteLoadClient;
+import com.github.coderodde.text.autocomplete.AutocompleteServer;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutocompleteServerTest {
+    
+    private final PrefixTree pt = new PrefixTree();
+    private AutocompleteServer server;
+    private Thread serverThread;
+    
+    @Before
+    public void before() throws IOException {
+        server = new AutocompleteServer(pt, 0);
+        serverThread = new Thread(server);
+        serverThread.start();
+    }
+    
+    @After
+    public void after() throws InterruptedException {
+        server.close();
+        serverThread.join();
+    }
+    
+    @Test
+    public void pipelinedRequests() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), 
+                                        server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader reader = 
+                    new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), 
+                                                  StandardCharsets.UTF_8));
+            
+            // All the requests in one write, the last one split in two:
+            out.write(("add abc\nadd abd\nadd abc\nadd b\r\n"
+                    + "contains abd\nremove abd\ncontains abd\n"
+                    + "complete ab\ncomplete\ncomplete  a  1\n"
+                    + "size\nfoo bar\ncomplete a x\nadd\n"
+                    + "comp").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            
+            assertEquals("true", reader.readLine());
+            assertEquals("true", reader.readLine());
+            assertEquals("false", reader.readLine());
+            assertEquals("true", reader.readLine());
+            assertEquals("true", reader.readLine());
+            assertEquals("true", reader.readLine());
+            assertEquals("false", reader.readLine());
+            assertEquals("1 abc", reader.readLine());
+            assertEquals("2 abc b", reader.readLine());
+            assertEquals("1 abc", reader.readLine());
+            assertEquals("2", reader.readLine());
+            assertTrue(reader.readLine().startsWith("ERROR"));
+            assertTrue(reader.readLine().startsWith("ERROR"));
+            assertTrue(reader.readLine().startsWith("ERROR"));
+            
+            out.write("lete b\nsize".getBytes(StandardCharsets.UTF_8));
+            socket.shutdownOutput();
+            
+            assertEquals("1 b", reader.readLine());
+            
+            // The last request has no line terminator:
+            assertEquals("2", reader.readLine());
+            assertNull(reader.readLine());
+        }
+    }
+    
+    @Test
+    public void engineFailure() throws IOException, InterruptedException {
+        PrefixTree failingEngine = new FailingPrefixTree();
+        
+        AutocompleteServer failingServer = 
+                new AutocompleteServer(failingEngine, 0);
+        Thread failingServerThread = new Thread(failingServer);
+        failingServerThread.start();
+        
+        try (Socket socket = 
+                new Socket(InetAddress.getLoopbackAddress(), 
+                           failingServer.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader reader = 
+                    new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), 
+                                                  StandardCharsets.UTF_8));
+            
+            out.write("add a\ncontains a\nsize\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            
+            // The server survives the failure and keeps serving:
+            assertEquals("true", reader.readLine());
+            assertEquals("ERROR Disk failure.", reader.readLine());
+            assertEquals("1", reader.readLine());
+        } finally {
+            failingServer.close();
+            failingServerThread.join();
+        }
+    }
+    
+    @Test
+    public void closeWithoutRunning() throws IOException {
+        AutocompleteServer idleServer = new AutocompleteServer(pt, 0);
+        int port = idleServer.getPort();
+        idleServer.close();
+        idleServer.close();
+        
+        // The port is released, and the closed server does not start:
+        new AutocompleteServer(pt, port).close();
+        idleServer.run();
+    }
+    
+    @Test
+    public void loadClient() throws IOException {
+        String[] strings = { "apple", "apricot", "banana", "blueberry" };
+        AutocompleteLoadClient client = 
+                new AutocompleteLoadClient(
+                        new InetSocketAddress(InetAddress.getLoopbackAddress(), 
+                                              server.getPort()), 
+                        4, 
+                        8);
+        
+        client.load(strings);
+        AutocompleteLoadClient.Result result = client.run(strings, 200L);
+        
+        assertTrue(result.getRequestCount() > 0L);
+        assertEquals(0L, result.getErrorCount());
+        assertEquals(result.getRequestCount(), 
+                     result.getLatencies().getCount());
+    }
+    
+    private static final class FailingPrefixTree extends PrefixTree {
+        
+        @Override
+        public boolean contains(String s) {
+            throw new IllegalStateException("Disk failure.");
+        }
+    }
+}
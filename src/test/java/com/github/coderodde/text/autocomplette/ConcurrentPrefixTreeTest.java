@@ -0,0 +1,169 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.ConcurrentPrefixTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ConcurrentPrefixTreeTest {
+    
+    private static final int NUMBER_OF_WRITERS = 4;
+    private static final int NUMBER_OF_READERS = 4;
+    private static final int OPERATIONS_PER_WRITER = 50_000;
+    
+    private final ConcurrentPrefixTree tree = new ConcurrentPrefixTree();
+    
+    @Test
+    public void sequentialOperations() {
+        assertTrue(tree.add("in"));
+        assertTrue(tree.add("inn"));
+        assertTrue(tree.add("ink"));
+        assertFalse(tree.add("in"));
+        assertTrue(tree.add(""));
+        
+        assertTrue(tree.contains("in"));
+        assertTrue(tree.contains(""));
+        assertFalse(tree.contains("i"));
+        assertEquals(4, tree.size());
+        
+        assertEquals(List.of("in", "ink", "inn"), tree.autocomplete("i"));
+        
+        assertTrue(tree.remove("inn"));
+        assertFalse(tree.remove("inn"));
+        assertTrue(tree.remove("in"));
+        assertEquals(List.of("ink"), tree.autocomplete("in"));
+        
+        assertTrue(tree.remove("ink"));
+        assertTrue(tree.autocomplete("i").isEmpty());
+        
+        List<String> all = new ArrayList<>();
+        tree.forEach(all::add);
+        assertEquals(List.of(""), all);
+        
+        tree.clear();
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.contains(""));
+    }
+    
+    @Test
+    public void concurrentWritersAndReaders() throws Exception {
+        // Strings that are never removed must stay visible to the readers all
+        // the time:
+        List<String> stableStrings = new ArrayList<>();
+        
+        for (int i = 0; i < 100; ++i) {
+            String s = "s" + Integer.toString(i, 3);
+            stableStrings.add(s);
+            tree.add(s);
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(
+                NUMBER_OF_WRITERS + NUMBER_OF_READERS);
+        
+        CountDownLatch startLatch = new CountDownLatch(1);
+        AtomicBoolean writersDone = new AtomicBoolean();
+        List<Future<List<String>>> writerFutures = new ArrayList<>();
+        List<Future<?>> readerFutures = new ArrayList<>();
+        
+        for (int w = 0; w < NUMBER_OF_WRITERS; ++w) {
+            // Each writer owns the strings starting with its own character, 
+            // so the final state of each subtree is deterministic:
+            char owner = (char)('a' + w);
+            long seed = w;
+            
+            writerFutures.add(executor.submit(() -> {
+                startLatch.await();
+                return runWriter(owner, seed);
+            }));
+        }
+        
+        for (int r = 0; r < NUMBER_OF_READERS; ++r) {
+            long seed = 100 + r;
+            
+            readerFutures.add(executor.submit(() -> {
+                startLatch.await();
+                Random random = new Random(seed);
+                
+                while (!writersDone.get()) {
+                    String stable = 
+                            stableStrings.get(
+                                    random.nextInt(stableStrings.size()));
+                    
+                    assertTrue(tree.contains(stable));
+                    assertTrue(tree.autocomplete("s").size() >= 100);
+                    
+                    List<String> completions = 
+                            tree.autocomplete(
+                                    String.valueOf(
+                                            (char)('a' + random.nextInt(4))));
+                    
+                    for (int i = 1; i < completions.size(); ++i) {
+                        assertTrue(completions.get(i - 1)
+                                .compareTo(completions.get(i)) < 0);
+                    }
+                }
+                
+                return null;
+            }));
+        }
+        
+        startLatch.countDown();
+        List<String> expected = new ArrayList<>(stableStrings);
+        
+        for (Future<List<String>> future : writerFutures) {
+            expected.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        
+        writersDone.set(true);
+        
+        for (Future<?> future : readerFutures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        
+        executor.shutdown();
+        
+        List<String> actual = new ArrayList<>();
+        tree.forEach(actual::add);
+        Collections.sort(expected);
+        
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), tree.size());
+    }
+    
+    private List<String> runWriter(char owner, long seed) {
+        Random random = new Random(seed);
+        Set<String> presentSet = new HashSet<>();
+        
+        for (int i = 0; i < OPERATIONS_PER_WRITER; ++i) {
+            int length = random.nextInt(6);
+            StringBuilder sb = new StringBuilder().append(owner);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('0' + random.nextInt(4)));
+            }
+            
+            String s = sb.toString();
+            
+            if (random.nextBoolean()) {
+                assertEquals(presentSet.add(s), tree.add(s));
+            } else {
+                assertEquals(presentSet.remove(s), tree.remove(s));
+            }
+        }
+        
+        return new ArrayList<>(presentSet);
+    }
+}
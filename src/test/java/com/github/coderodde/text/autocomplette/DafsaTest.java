@@ -0,0 +1,94 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.Dafsa;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class DafsaTest {
+    
+    @Test
+    public void sharesSuffixes() {
+        Dafsa dafsa = new Dafsa.Builder()
+                .addAll(List.of("tap", "taps", "top", "tops"))
+                .build();
+        
+        // t -> {a, o} -> p -> (s): the states after 'ta' and 'to' merge.
+        assertEquals(5, dafsa.stateCount());
+        assertEquals(4, dafsa.size());
+        
+        assertTrue(dafsa.contains("tap"));
+        assertTrue(dafsa.contains("tops"));
+        assertFalse(dafsa.contains("ta"));
+        assertFalse(dafsa.contains("tas"));
+        assertFalse(dafsa.contains(""));
+        
+        assertEquals(List.of("top", "tops"), dafsa.autocomplete("to"));
+        assertEquals(List.of("tap", "taps", "top", "tops"), 
+                     dafsa.autocomplete(""));
+        assertTrue(dafsa.autocomplete("x").isEmpty());
+    }
+    
+    @Test
+    public void emptyStringAndDuplicates() {
+        Dafsa dafsa = new Dafsa.Builder()
+                .add("")
+                .add("a")
+                .add("a")
+                .add("b")
+                .build();
+        
+        assertEquals(3, dafsa.size());
+        assertTrue(dafsa.contains(""));
+        
+        List<String> list = new ArrayList<>();
+        dafsa.forEach(list::add);
+        assertEquals(List.of("", "a", "b"), list);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsortedInput() {
+        new Dafsa.Builder().add("b").add("a");
+    }
+    
+    @Test
+    public void agreesWithTreeSet() {
+        Random random = new Random(11L);
+        TreeSet<String> set = new TreeSet<>();
+        
+        for (int i = 0; i < 20_000; ++i) {
+            int length = random.nextInt(9);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(4)));
+            }
+            
+            set.add(sb.toString());
+        }
+        
+        Dafsa dafsa = new Dafsa.Builder().addAll(set).build();
+        List<String> list = new ArrayList<>();
+        dafsa.forEach(list::add);
+        
+        assertEquals(set.size(), dafsa.size());
+        assertEquals(new ArrayList<>(set), list);
+        
+        for (int i = 0; i < 10_000; ++i) {
+            int length = random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(5)));
+            }
+            
+            String s = sb.toString();
+            assertEquals(set.contains(s), dafsa.contains(s));
+        }
+    }
+}
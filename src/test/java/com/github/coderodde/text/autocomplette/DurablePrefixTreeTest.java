@@ -0,0 +1,227 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.DurablePrefixTree;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DurablePrefixTreeTest {
+    
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Test
+    public void reopen() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            assertTrue(tree.isEmpty());
+            assertTrue(tree.add("abc"));
+            assertFalse(tree.add("abc"));
+            assertTrue(tree.add("abd", 7L));
+            assertTrue(tree.add("b"));
+            assertTrue(tree.remove("b"));
+            assertFalse(tree.remove("b"));
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertEquals(Arrays.asList("abc", "abd"), tree.autocomplete(""));
+            assertEquals(List.of("abd"), tree.topK("ab", 1));
+            tree.clear();
+            tree.add("x");
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertEquals(List.of("x"), tree.autocomplete(""));
+        }
+    }
+    
+    @Test
+    public void logOnlyWeightChanges() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        Path logPath = directory.resolve("wal.log");
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertTrue(tree.add("a", 5L));
+            long size = Files.size(logPath);
+            
+            assertFalse(tree.add("a", 5L));
+            assertEquals(size, Files.size(logPath));
+            
+            assertFalse(tree.add("a", 6L));
+            assertTrue(size < Files.size(logPath));
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            tree.add("b", 5L);
+            assertEquals(List.of("a", "b"), tree.topK("", 2));
+        }
+    }
+    
+    @Test
+    public void replayUnpairedSurrogates() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        List<String> strings = List.of("a\uD800", "a\uDC00b", "\uD83D\uDE00");
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            strings.forEach(tree::add);
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertEquals(3, tree.size());
+            
+            for (String s : strings) {
+                assertTrue(tree.contains(s));
+            }
+            
+            assertFalse(tree.contains("a?"));
+        }
+    }
+    
+    @Test
+    public void surviveUnclosedTree() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        DurablePrefixTree tree = new DurablePrefixTree(directory, 0);
+        tree.add("abc");
+        tree.add("abd");
+        
+        // As after a crash of the JVM, the first tree is never closed:
+        try (DurablePrefixTree reopened = new DurablePrefixTree(directory, 0)) {
+            assertEquals(Arrays.asList("abc", "abd"), 
+                         reopened.autocomplete(""));
+        }
+        
+        tree.close();
+    }
+    
+    @Test
+    public void compact() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            for (int i = 0; i < 1000; ++i) {
+                tree.add("s" + i);
+            }
+            
+            tree.compact().get();
+            assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+            assertFalse(Files.exists(directory.resolve("wal.old")));
+            assertEquals(0L, Files.size(directory.resolve("wal.log")));
+            
+            tree.remove("s0");
+            tree.add("t", 5L);
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertEquals(1000, tree.size());
+            assertFalse(tree.contains("s0"));
+            assertEquals(List.of("t"), tree.topK("", 1));
+        }
+    }
+    
+    @Test
+    public void compactAutomatically() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        
+        try (DurablePrefixTree tree =
+                new DurablePrefixTree(directory, 16, 1024L)) {
+            for (int i = 0; i < 1000; ++i) {
+                tree.add("s" + i);
+            }
+        }
+        
+        assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 0)) {
+            assertEquals(1000, tree.size());
+        }
+    }
+    
+    @Test
+    public void failToStartCompaction() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        DurablePrefixTree tree = new DurablePrefixTree(directory, 1, 64L);
+        
+        // Renaming the log aside fails once it is gone:
+        Files.delete(directory.resolve("wal.log"));
+        
+        for (int i = 0; i < 10; ++i) {
+            assertTrue(tree.add("s" + i));
+        }
+        
+        assertEquals(10, tree.size());
+        assertTrue(tree.remove("s0"));
+        assertFalse(tree.contains("s0"));
+        
+        try {
+            tree.close();
+            fail("The failed compaction was not reported.");
+        } catch (IOException ex) {
+            assertEquals("The compaction failed.", ex.getMessage());
+        }
+    }
+    
+    @Test
+    public void dropTornTail() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        Path logPath = directory.resolve("wal.log");
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            tree.add("abc");
+            tree.add("abd");
+        }
+        
+        // Cut the last record in the middle:
+        long size = Files.size(logPath);
+        byte[] log = Files.readAllBytes(logPath);
+        Files.write(logPath, Arrays.copyOf(log, log.length - 3));
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            assertEquals(List.of("abc"), tree.autocomplete(""));
+            tree.add("xyz");
+        }
+        
+        // Garbage at the end is dropped as well:
+        Files.write(logPath, new byte[]{ 3, 0, 0 }, StandardOpenOption.APPEND);
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            assertEquals(Arrays.asList("abc", "xyz"), tree.autocomplete(""));
+        }
+        
+        assertEquals(size, Files.size(logPath));
+    }
+    
+    @Test
+    public void replayInterruptedCompaction() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            tree.add("a");
+            tree.add("b");
+        }
+        
+        // A crash after renaming the log, but before writing the snapshot:
+        Files.move(directory.resolve("wal.log"), directory.resolve("wal.old"));
+        Files.write(directory.resolve("snapshot.tmp"), new byte[]{ 1, 2, 3 });
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            assertEquals(Arrays.asList("a", "b"), tree.autocomplete(""));
+            tree.remove("a");
+            assertFalse(Files.exists(directory.resolve("snapshot.tmp")));
+        }
+        
+        try (DurablePrefixTree tree = new DurablePrefixTree(directory, 1)) {
+            assertEquals(List.of("b"), tree.autocomplete(""));
+        }
+    }
+}
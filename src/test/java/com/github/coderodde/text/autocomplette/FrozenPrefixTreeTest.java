@@ -0,0 +1,94 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.FrozenPrefixTree;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class FrozenPrefixTreeTest {
+    
+    @Test
+    public void emptyTree() {
+        FrozenPrefixTree frozen = new PrefixTree().freeze();
+        
+        assertTrue(frozen.isEmpty());
+        assertFalse(frozen.contains(""));
+        assertFalse(frozen.iterator().hasNext());
+        assertTrue(frozen.autocomplete("").isEmpty());
+    }
+    
+    @Test
+    public void containsAndAutocomplete() {
+        PrefixTree pt = new PrefixTree();
+        pt.add("");
+        pt.add("in");
+        pt.add("inn");
+        pt.add("ink");
+        pt.add("tea");
+        
+        FrozenPrefixTree frozen = pt.freeze();
+        pt.add("ten");
+        
+        assertEquals(5, frozen.size());
+        assertTrue(frozen.contains(""));
+        assertTrue(frozen.contains("in"));
+        assertTrue(frozen.contains("inn"));
+        assertTrue(frozen.contains("ink"));
+        assertTrue(frozen.contains("tea"));
+        assertFalse(frozen.contains("ten"));
+        assertFalse(frozen.contains("i"));
+        assertFalse(frozen.contains("te"));
+        assertFalse(frozen.contains("inks"));
+        
+        assertEquals(List.of("in", "ink", "inn"), frozen.autocomplete("i"));
+        assertEquals(List.of("tea"), frozen.autocomplete("te"));
+        assertTrue(frozen.autocomplete("x").isEmpty());
+        
+        List<String> list = new ArrayList<>();
+        frozen.forEach(list::add);
+        assertEquals(List.of("", "in", "ink", "inn", "tea"), list);
+    }
+    
+    @Test
+    public void agreesWithTreeSet() {
+        Random random = new Random(7L);
+        PrefixTree pt = new PrefixTree();
+        TreeSet<String> set = new TreeSet<>();
+        
+        for (int i = 0; i < 30_000; ++i) {
+            int length = random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(20)));
+            }
+            
+            pt.add(sb.toString());
+            set.add(sb.toString());
+        }
+        
+        FrozenPrefixTree frozen = pt.freeze();
+        List<String> list = new ArrayList<>();
+        frozen.forEach(list::add);
+        
+        assertEquals(set.size(), frozen.size());
+        assertEquals(new ArrayList<>(set), list);
+        
+        for (String s : set) {
+            assertTrue(frozen.contains(s));
+            assertFalse(frozen.contains(s + "#"));
+        }
+        
+        List<String> completions = frozen.autocomplete("ab");
+        List<String> expected = pt.autocomplete("ab");
+        Collections.sort(expected);
+        assertEquals(expected, completions);
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.MappedPrefixTree;
+import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedPrefixTreeTest {
+    
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    @Test
+    public void writeAndQuery() throws IOException {
+        PrefixTree pt = new PrefixTree();
+        pt.add("");
+        pt.add("in");
+        pt.add("inn");
+        pt.add("ink");
+        pt.add("tea");
+        
+        Path path = temporaryFolder.newFile().toPath();
+        MappedPrefixTree.write(pt, path);
+        MappedPrefixTree mapped = MappedPrefixTree.open(path);
+        
+        assertEquals(5, mapped.size());
+        assertTrue(mapped.contains(""));
+        assertTrue(mapped.contains("in"));
+        assertTrue(mapped.contains("ink"));
+        assertTrue(mapped.contains("tea"));
+        assertFalse(mapped.contains("i"));
+        assertFalse(mapped.contains("teas"));
+        
+        assertEquals(List.of("in", "ink", "inn"), mapped.autocomplete("i"));
+        assertTrue(mapped.autocomplete("x").isEmpty());
+        
+        List<String> list = new ArrayList<>();
+        mapped.forEach(list::add);
+        assertEquals(List.of("", "in", "ink", "inn", "tea"), list);
+    }
+    
+    @Test
+    public void emptyTree() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        MappedPrefixTree.write(new PrefixTree(), path);
+        MappedPrefixTree mapped = MappedPrefixTree.open(path);
+        
+        assertTrue(mapped.isEmpty());
+        assertFalse(mapped.contains(""));
+        assertFalse(mapped.iterator().hasNext());
+    }
+    
+    @Test
+    public void agreesWithPrefixTree() throws IOException {
+        Random random = new Random(5L);
+        PrefixTree pt = new PrefixTree();
+        
+        for (int i = 0; i < 20_000; ++i) {
+            int length = random.nextInt(10);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(15)));
+            }
+            
+            pt.add(sb.toString());
+        }
+        
+        Path path = temporaryFolder.newFile().toPath();
+        MappedPrefixTree.write(pt, path);
+        MappedPrefixTree mapped = MappedPrefixTree.open(path);
+        
+        List<String> expected = pt.autocomplete("");
+        Collections.sort(expected);
+        List<String> actual = new ArrayList<>();
+        mapped.forEach(actual::add);
+        
+        assertEquals(expected, actual);
+        
+        for (String s : expected) {
+            assertTrue(mapped.contains(s));
+        }
+        
+        expected = pt.autocomplete("ab");
+        Collections.sort(expected);
+        assertEquals(expected, mapped.autocomplete("ab"));
+    }
+    
+    @Test(expected = IOException.class)
+    public void rejectsForeignFiles() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.writeString(path, "definitely not a prefix tree");
+        MappedPrefixTree.open(path);
+    }
+    
+    @Test
+    public void rejectsTruncatedFiles() throws IOException {
+        byte[] file = writeTea();
+        
+        for (int length = 16; length < file.length; ++length) {
+            assertCorrupt(Arrays.copyOf(file, length));
+        }
+    }
+    
+    @Test
+    public void rejectsCorruptFiles() throws IOException {
+        byte[] file = writeTea();
+        
+        // A bad node count or size is caught without verifying:
+        assertCorrupt(ByteBuffer.wrap(file.clone()).putInt(12, 0).array(),
+                      false);
+        assertCorrupt(ByteBuffer.wrap(file.clone()).putInt(12, 1 << 30)
+                                                   .array(),
+                      false);
+        assertCorrupt(ByteBuffer.wrap(file.clone()).putInt(8, -1).array(),
+                      false);
+        
+        // A wrong size:
+        assertCorrupt(ByteBuffer.wrap(file.clone()).putInt(8, 4).array());
+        
+        // The first child offset of the root points back to the root:
+        assertCorrupt(ByteBuffer.wrap(file.clone()).putInt(24, 16).array());
+        
+        // Garbage after the last node:
+        assertCorrupt(Arrays.copyOf(file, file.length + 4));
+    }
+    
+    private byte[] writeTea() throws IOException {
+        PrefixTree pt = new PrefixTree();
+        pt.add("in");
+        pt.add("inn");
+        pt.add("tea");
+        
+        Path path = temporaryFolder.newFile().toPath();
+        MappedPrefixTree.write(pt, path);
+        MappedPrefixTree.open(path, true);
+        return Files.readAllBytes(path);
+    }
+    
+    private void assertCorrupt(byte[] file) throws IOException {
+        assertCorrupt(file, true);
+    }
+    
+    private void assertCorrupt(byte[] file, boolean verify)
+            throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, file);
+        
+        try {
+            MappedPrefixTree.open(path, verify);
+            fail("A corrupt file was opened.");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().startsWith("Corrupt prefix tree file"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.PersistentPrefixTree;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class PersistentPrefixTreeTest {
+    
+    private final PersistentPrefixTree pt = new PersistentPrefixTree();
+    
+    @Test
+    public void addContainsRemove() {
+        assertTrue(pt.add("in"));
+        assertTrue(pt.add("inn"));
+        assertTrue(pt.add("ink"));
+        assertTrue(pt.add(""));
+        assertFalse(pt.add("in"));
+        
+        assertTrue(pt.contains("in"));
+        assertTrue(pt.contains(""));
+        assertFalse(pt.contains("i"));
+        assertEquals(4, pt.size());
+        
+        assertTrue(pt.remove("in"));
+        assertFalse(pt.remove("in"));
+        assertFalse(pt.remove("i"));
+        assertEquals(List.of("ink", "inn"), pt.autocomplete("i"));
+        
+        assertTrue(pt.remove("inn"));
+        assertTrue(pt.remove("ink"));
+        assertTrue(pt.remove(""));
+        assertTrue(pt.isEmpty());
+        assertTrue(pt.autocomplete("").isEmpty());
+    }
+    
+    @Test
+    public void snapshotIsIsolatedFromUpdates() {
+        pt.add("apple");
+        pt.add("apricot");
+        
+        PersistentPrefixTree.Snapshot snapshot = pt.snapshot();
+        
+        pt.add("avocado");
+        pt.remove("apple");
+        pt.add("app");
+        
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.contains("apple"));
+        assertFalse(snapshot.contains("avocado"));
+        assertFalse(snapshot.contains("app"));
+        assertEquals(List.of("apple", "apricot"), snapshot.autocomplete("a"));
+        
+        assertEquals(List.of("app", "apricot", "avocado"), 
+                     pt.autocomplete("a"));
+    }
+    
+    @Test
+    public void iterationSurvivesUpdates() {
+        for (int i = 0; i < 100; ++i) {
+            pt.add(Integer.toString(i));
+        }
+        
+        Iterator<String> iterator = pt.iterator();
+        int iterated = 0;
+        
+        while (iterator.hasNext()) {
+            String s = iterator.next();
+            pt.remove(s);
+            pt.add(s + "x");
+            iterated++;
+        }
+        
+        assertEquals(100, iterated);
+        assertEquals(100, pt.size());
+        assertTrue(pt.contains("42x"));
+        assertFalse(pt.contains("42"));
+    }
+    
+    @Test
+    public void snapshotsAgreeWithTreeSets() {
+        Random random = new Random(3L);
+        TreeSet<String> set = new TreeSet<>();
+        List<PersistentPrefixTree.Snapshot> snapshots = new ArrayList<>();
+        List<List<String>> expectedContents = new ArrayList<>();
+        
+        for (int i = 0; i < 5_000; ++i) {
+            int length = random.nextInt(6);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(3)));
+            }
+            
+            String s = sb.toString();
+            
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(s), pt.remove(s));
+            } else {
+                assertEquals(set.add(s), pt.add(s));
+            }
+            
+            if (i % 500 == 0) {
+                snapshots.add(pt.snapshot());
+                expectedContents.add(new ArrayList<>(set));
+            }
+        }
+        
+        for (int i = 0; i < snapshots.size(); ++i) {
+            List<String> actual = new ArrayList<>();
+            snapshots.get(i).forEach(actual::add);
+            assertEquals(expectedContents.get(i), actual);
+        }
+        
+        List<String> actual = new ArrayList<>();
+        pt.forEach(actual::add);
+        assertEquals(new ArrayList<>(set), actual);
+    }
+}
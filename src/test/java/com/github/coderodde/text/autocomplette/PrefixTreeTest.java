@@ -1,13 +1,27 @@
 package com.github.coderodde.text.autocomplette;
 
+import com.github.coderodde.text.autocomplete.Alphabet;
+import com.github.coderodde.text.autocomplete.CacheStatistics;
 import com.github.coderodde.text.autocomplete.PrefixTree;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -200,4 +214,695 @@ public class PrefixTreeTest {
         assertEquals("011", list.get(6));
         
     }
+    
+    @Test
+    public void largeFanOut() {
+        for (char ch = 'a'; ch <= 'z'; ++ch) {
+            assertTrue(pt.add("x" + ch));
+        }
+        
+        assertEquals(26, pt.size());
+        
+        for (char ch = 'a'; ch <= 'z'; ++ch) {
+            assertTrue(pt.contains("x" + ch));
+        }
+        
+        assertEquals(26, pt.autocomplete("x").size());
+        
+        for (char ch = 'a'; ch <= 'w'; ++ch) {
+            assertTrue(pt.remove("x" + ch));
+            assertFalse(pt.contains("x" + ch));
+        }
+        
+        List<String> list = pt.autocomplete("x");
+        Collections.sort(list);
+        
+        assertEquals(3, list.size());
+        assertEquals("xx", list.get(0));
+        assertEquals("xy", list.get(1));
+        assertEquals("xz", list.get(2));
+        
+        for (char ch = 'a'; ch <= 'z'; ++ch) {
+            pt.add("x" + ch);
+        }
+        
+        assertEquals(26, pt.size());
+    }
+    
+    @Test
+    public void removePrunesDeadBranches() {
+        pt.add("abc");
+        pt.add("abcdef");
+        pt.add("abx");
+        
+        assertTrue(pt.remove("abcdef"));
+        assertTrue(pt.autocomplete("abcd").isEmpty());
+        assertTrue(pt.contains("abc"));
+        
+        assertTrue(pt.remove("abc"));
+        assertTrue(pt.autocomplete("abc").isEmpty());
+        assertTrue(pt.contains("abx"));
+        
+        assertTrue(pt.remove("abx"));
+        assertTrue(pt.autocomplete("").isEmpty());
+        assertFalse(pt.iterator().hasNext());
+    }
+    
+    @Test
+    public void topK() {
+        pt.add("apple", 5L);
+        pt.add("apricot", 9L);
+        pt.add("banana", 7L);
+        pt.add("app", 3L);
+        pt.add("avocado", 1L);
+        
+        assertEquals(List.of("apricot", "banana", "apple"), pt.topK("", 3));
+        assertEquals(List.of("apricot", "apple", "app", "avocado"), 
+                     pt.topK("a", 10));
+        assertEquals(List.of("apple", "app"), pt.topK("app", 5));
+        assertTrue(pt.topK("c", 5).isEmpty());
+        assertTrue(pt.topK("a", 0).isEmpty());
+    }
+    
+    @Test
+    public void topKAfterWeightUpdates() {
+        pt.add("aa", 10L);
+        pt.add("ab", 20L);
+        pt.add("ac", 30L);
+        
+        assertEquals(List.of("ac"), pt.topK("a", 1));
+        
+        assertFalse(pt.add("ac", 5L));
+        assertEquals(List.of("ab", "aa", "ac"), pt.topK("a", 3));
+        
+        assertTrue(pt.remove("ab"));
+        assertEquals(List.of("aa", "ac"), pt.topK("", 3));
+        
+        assertFalse(pt.add("aa"));
+        assertEquals(List.of("aa"), pt.topK("a", 1));
+        
+        pt.remove("aa");
+        pt.remove("ac");
+        assertTrue(pt.topK("", 3).isEmpty());
+        
+        pt.add("a");
+        pt.add("abc", -1L);
+        assertEquals(List.of("a", "abc"), pt.topK("", 3));
+    }
+    
+    @Test
+    public void boundedAutocomplete() {
+        pt.add("a");
+        pt.add("ab");
+        pt.add("abc");
+        pt.add("abd");
+        pt.add("b");
+        
+        assertEquals(2, pt.autocomplete("a", 2).size());
+        assertEquals(4, pt.autocomplete("a", 10).size());
+        assertTrue(pt.autocomplete("a", 0).isEmpty());
+        assertTrue(pt.autocomplete("c", 10).isEmpty());
+        
+        List<String> list = pt.autocomplete("ab", 3);
+        Collections.sort(list);
+        assertEquals(List.of("ab", "abc", "abd"), list);
+    }
+    
+    @Test
+    public void lazyAutocomplete() {
+        pt.add("");
+        pt.add("x");
+        pt.add("xy");
+        pt.add("xyz");
+        pt.add("xz");
+        
+        Iterator<String> iter = pt.autocompleteIterator("x");
+        List<String> list = new ArrayList<>();
+        
+        while (iter.hasNext()) {
+            list.add(iter.next());
+        }
+        
+        Collections.sort(list);
+        assertEquals(List.of("x", "xy", "xyz", "xz"), list);
+        
+        assertFalse(pt.autocompleteIterator("q").hasNext());
+        assertEquals(5, pt.autocompleteStream("").count());
+        assertEquals(2, pt.autocompleteStream("").limit(2).count());
+        assertTrue(pt.autocompleteStream("xy")
+                     .anyMatch(s -> s.equals("xyz")));
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void lazyAutocompleteFailsFast() {
+        pt.add("a");
+        pt.add("ab");
+        
+        Iterator<String> iter = pt.autocompleteIterator("a");
+        iter.next();
+        pt.add("ac");
+        iter.next();
+    }
+    
+    @Test
+    public void addAllSorted() {
+        pt.add("b");
+        pt.add("zz");
+        
+        assertEquals(4, pt.addAllSorted(
+                List.of("", "a", "ab", "abc", "b", "b").iterator()));
+        
+        assertEquals(6, pt.size());
+        
+        List<String> list = pt.autocomplete("");
+        Collections.sort(list);
+        assertEquals(List.of("", "a", "ab", "abc", "b", "zz"), list);
+        
+        assertEquals(List.of("abc"), pt.topK("abc", 3));
+        assertTrue(pt.remove("ab"));
+        assertTrue(pt.contains("abc"));
+    }
+    
+    @Test
+    public void addAllSortedRejectsUnsortedInput() {
+        try {
+            pt.addAllSorted(List.of("a", "c", "b").iterator());
+            fail("Unsorted input accepted.");
+        } catch (IllegalArgumentException ex) {
+            
+        }
+        
+        assertEquals(2, pt.size());
+        assertTrue(pt.contains("a"));
+        assertTrue(pt.contains("c"));
+        assertFalse(pt.contains("b"));
+    }
+    
+    @Test
+    public void parallelAutocomplete() {
+        Random random = new Random(17L);
+        
+        for (int i = 0; i < 20_000; ++i) {
+            int length = random.nextInt(8);
+            StringBuilder sb = new StringBuilder(length);
+            
+            for (int j = 0; j < length; ++j) {
+                sb.append((char)('a' + random.nextInt(12)));
+            }
+            
+            pt.add(sb.toString());
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        
+        try {
+            for (String prefix : List.of("", "a", "bc", "zzz")) {
+                assertEquals(pt.autocomplete(prefix), 
+                             pt.autocompleteParallel(prefix, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        assertEquals(pt.autocomplete("k"), pt.autocompleteParallel("k"));
+    }
+    
+    @Test
+    public void fuzzyAutocomplete() {
+        pt.add("hello");
+        pt.add("help");
+        pt.add("hero");
+        pt.add("world");
+        
+        assertEquals(List.of("hello", "help", "hero"), 
+                     pt.fuzzyAutocomplete("hel", 1, 10));
+        assertEquals(List.of("hello", "help"), 
+                     pt.fuzzyAutocomplete("hwl", 1, 10).subList(0, 2));
+        assertEquals(List.of("world"), pt.fuzzyAutocomplete("wrld", 1, 10));
+        assertEquals(List.of(), pt.fuzzyAutocomplete("wrld", 0, 10));
+        assertEquals(List.of("hello"), pt.fuzzyAutocomplete("hel", 1, 1));
+    }
+    
+    @Test
+    public void fuzzyAutocompleteWithHugeMaxEdits() {
+        pt.add("hello");
+        pt.add("help");
+        pt.add("world");
+        
+        // Any budget of at least the prefix length matches everything:
+        List<String> expected = pt.fuzzyAutocomplete("hwl", 3, 10);
+        
+        assertEquals(3, expected.size());
+        assertEquals(expected, pt.fuzzyAutocomplete("hwl", 1_000_000, 10));
+        assertEquals(expected, 
+                     pt.fuzzyAutocomplete("hwl", Integer.MAX_VALUE, 10));
+    }
+    
+    @Test
+    public void fuzzyAutocompleteMatchesBruteForce() {
+        Random random = new Random(23L);
+        List<String> strings = new ArrayList<>();
+        
+        for (int i = 0; i < 2_000; ++i) {
+            String s = randomString(random, 7);
+            
+            if (pt.add(s)) {
+                strings.add(s);
+            }
+        }
+        
+        for (int i = 0; i < 50; ++i) {
+            String prefix = randomString(random, 4);
+            int maxEdits = random.nextInt(3);
+            List<String> result = 
+                    pt.fuzzyAutocomplete(prefix, maxEdits, Integer.MAX_VALUE);
+            List<String> expected = new ArrayList<>();
+            
+            for (String s : strings) {
+                if (prefixDistance(prefix, s) <= maxEdits) {
+                    expected.add(s);
+                }
+            }
+            
+            assertEquals(expected.size(), result.size());
+            assertTrue(result.containsAll(expected));
+            
+            for (int j = 1; j < result.size(); ++j) {
+                assertTrue(prefixDistance(prefix, result.get(j - 1)) 
+                        <= prefixDistance(prefix, result.get(j)));
+            }
+        }
+    }
+    
+    private static String randomString(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        
+        for (int i = 0; i < length; ++i) {
+            sb.append((char)('a' + random.nextInt(4)));
+        }
+        
+        return sb.toString();
+    }
+    
+    // The minimum edit distance between 'prefix' and a prefix of 's':
+    private static int prefixDistance(String prefix, String s) {
+        int[] row = new int[s.length() + 1];
+        
+        for (int j = 0; j < row.length; ++j) {
+            row[j] = j;
+        }
+        
+        for (int i = 1; i <= prefix.length(); ++i) {
+            int diagonal = row[0];
+            row[0] = i;
+            
+            for (int j = 1; j <= s.length(); ++j) {
+                int above = row[j];
+                int cost = prefix.charAt(i - 1) == s.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1], above) + 1, 
+                                  diagonal + cost);
+                diagonal = above;
+            }
+        }
+        
+        int minimum = Integer.MAX_VALUE;
+        
+        for (int distance : row) {
+            minimum = Math.min(minimum, distance);
+        }
+        
+        return minimum;
+    }
+    
+    @Test
+    public void streams() {
+        Random random = new Random(29L);
+        
+        for (int i = 0; i < 10_000; ++i) {
+            pt.add(randomString(random, 10));
+        }
+        
+        List<String> iterated = new ArrayList<>();
+        
+        for (String s : pt) {
+            iterated.add(s);
+        }
+        
+        assertEquals(pt.size(), iterated.size());
+        assertEquals(iterated, pt.stream().collect(Collectors.toList()));
+        assertEquals(iterated, 
+                     pt.parallelStream().collect(Collectors.toList()));
+        assertEquals(pt.autocomplete("ab"), 
+                     pt.autocompleteStream("ab")
+                       .parallel()
+                       .collect(Collectors.toList()));
+    }
+    
+    @Test
+    public void spliteratorSplitsOnSubtrees() {
+        pt.add("");
+        pt.add("a");
+        pt.add("ab");
+        pt.add("b");
+        pt.add("ba");
+        
+        Spliterator<String> second = pt.spliterator();
+        Spliterator<String> first = second.trySplit();
+        List<String> list = new ArrayList<>();
+        
+        assertTrue(first != null);
+        first.forEachRemaining(list::add);
+        second.forEachRemaining(list::add);
+        
+        List<String> expected = new ArrayList<>();
+        pt.iterator().forEachRemaining(expected::add);
+        
+        assertEquals(expected, list);
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void streamFailsFast() {
+        pt.add("a");
+        pt.add("b");
+        pt.stream().forEach(s -> pt.add(s + s));
+    }
+    
+    @Test
+    public void cache() {
+        pt.setCacheCapacity(2);
+        pt.add("aa");
+        pt.add("ab");
+        pt.add("b");
+        
+        assertEquals(List.of("aa", "ab"), pt.autocomplete("a"));
+        assertEquals(List.of("aa", "ab"), pt.autocomplete("a"));
+        assertEquals(List.of("aa"), pt.autocomplete("a", 1));
+        assertEquals(List.of("b"), pt.autocomplete("b"));
+        
+        CacheStatistics statistics = pt.getCacheStatistics();
+        
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(2, statistics.getMissCount());
+        assertEquals(2, statistics.getSize());
+        
+        // Only the results of the prefixes of "ac" are dropped:
+        pt.add("ac");
+        
+        assertEquals(1, pt.getCacheStatistics().getInvalidationCount());
+        assertEquals(List.of("aa", "ab", "ac"), pt.autocomplete("a"));
+        assertEquals(List.of("b"), pt.autocomplete("b"));
+        assertEquals(3, pt.getCacheStatistics().getMissCount());
+        
+        pt.autocomplete("c");
+        
+        assertEquals(1, pt.getCacheStatistics().getEvictionCount());
+        
+        pt.remove("aa");
+        
+        assertEquals(List.of("ab", "ac"), pt.autocomplete("a"));
+        
+        pt.setCacheCapacity(0);
+        
+        assertEquals(null, pt.getCacheStatistics());
+    }
+    
+    @Test
+    public void cacheAnswersSmallerLimits() {
+        pt.setCacheCapacity(10);
+        pt.add("a");
+        pt.add("ab");
+        pt.add("abc");
+        
+        assertEquals(List.of("a", "ab"), pt.autocomplete("a", 2));
+        assertEquals(List.of("a"), pt.autocomplete("a", 1));
+        assertEquals(List.of("a", "ab", "abc"), pt.autocomplete("a", 5));
+        assertEquals(List.of("a", "ab", "abc"), pt.autocomplete("a", 4));
+        
+        assertEquals(2, pt.getCacheStatistics().getHitCount());
+        assertEquals(2, pt.getCacheStatistics().getMissCount());
+    }
+    
+    @Test
+    public void countWithPrefix() {
+        pt.add("");
+        pt.add("a");
+        pt.add("ab");
+        pt.add("abc");
+        pt.add("b");
+        
+        assertEquals(5, pt.countWithPrefix(""));
+        assertEquals(3, pt.countWithPrefix("a"));
+        assertEquals(1, pt.countWithPrefix("abc"));
+        assertEquals(0, pt.countWithPrefix("c"));
+        
+        pt.remove("ab");
+        
+        assertEquals(2, pt.countWithPrefix("a"));
+        assertEquals(1, pt.countWithPrefix("ab"));
+        
+        pt.addAllSorted(List.of("aa", "ab", "abd", "c").iterator());
+        
+        assertEquals(5, pt.countWithPrefix("a"));
+        assertEquals(8, pt.countWithPrefix(""));
+        assertEquals(8, pt.spliterator().getExactSizeIfKnown());
+        
+        pt.clear();
+        
+        assertEquals(0, pt.countWithPrefix(""));
+    }
+    
+    @Test
+    public void paginatedAutocomplete() {
+        Random random = new Random(31L);
+        
+        for (int i = 0; i < 5_000; ++i) {
+            pt.add(randomString(random, 8));
+        }
+        
+        for (String prefix : List.of("", "a", "bc", "dddd")) {
+            List<String> all = pt.autocomplete(prefix);
+            
+            for (int offset = 0; offset <= all.size() + 1; offset += 37) {
+                int to = Math.min(all.size(), offset + 10);
+                List<String> expected = 
+                        offset < all.size() ? 
+                        all.subList(offset, to) : 
+                        List.of();
+                
+                assertEquals(expected, pt.autocomplete(prefix, offset, 10));
+            }
+        }
+    }
+    
+    @Test
+    public void memoryFootprint() {
+        long emptyFootprint = pt.memoryFootprint();
+        assertTrue(emptyFootprint > 0L);
+        
+        pt.add("abc");
+        long footprint = pt.memoryFootprint();
+        assertTrue(footprint > emptyFootprint);
+        
+        // Adding a string whose nodes all exist does not allocate:
+        pt.add("ab");
+        assertEquals(footprint, pt.memoryFootprint());
+        
+        pt.add("abd");
+        assertTrue(pt.memoryFootprint() > footprint);
+        
+        pt.remove("abd");
+        assertEquals(footprint, pt.memoryFootprint());
+        
+        pt.clear();
+        assertEquals(emptyFootprint, pt.memoryFootprint());
+    }
+    
+    @Test
+    public void autocompleteAll() {
+        Random random = new Random(43L);
+        
+        for (int i = 0; i < 5_000; ++i) {
+            pt.add(randomString(random, 8));
+        }
+        
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add("");
+        prefixes.add("zzz");
+        
+        for (int i = 0; i < 200; ++i) {
+            String s = randomString(random, 6);
+            
+            // All the prefixes of 's', nested in each other:
+            for (int length = 0; length <= s.length(); ++length) {
+                prefixes.add(s.substring(0, length));
+            }
+        }
+        
+        Map<String, List<String>> completionMap = pt.autocompleteAll(prefixes);
+        List<String> expectedKeys = new ArrayList<>(new TreeSet<>(prefixes));
+        
+        assertEquals(expectedKeys, new ArrayList<>(completionMap.keySet()));
+        
+        for (String prefix : expectedKeys) {
+            assertEquals(pt.autocomplete(prefix), completionMap.get(prefix));
+        }
+        
+        assertTrue(completionMap.get("zzz").isEmpty());
+        assertTrue(pt.autocompleteAll(Collections.emptyList()).isEmpty());
+    }
+    
+    @Test
+    public void snapshotRoundTrip() throws IOException {
+        Random random = new Random(47L);
+        
+        for (int i = 0; i < 2_000; ++i) {
+            pt.add(randomString(random, 7), random.nextInt(100));
+        }
+        
+        // A node with a large fan-out:
+        for (char c = 0; c < 300; ++c) {
+            pt.add("wide" + c);
+        }
+        
+        pt.add("");
+        
+        PrefixTree copy = readSnapshot(writeSnapshot(pt));
+        
+        assertEquals(pt.size(), copy.size());
+        assertEquals(pt.autocomplete(""), copy.autocomplete(""));
+        assertEquals(pt.topK("", 50), copy.topK("", 50));
+        assertEquals(pt.topK("b", 5), copy.topK("b", 5));
+        assertEquals(pt.countWithPrefix("wide"), 
+                     copy.countWithPrefix("wide"));
+        assertTrue(copy.memoryFootprint() <= pt.memoryFootprint());
+        
+        // The copy is fully functional:
+        assertTrue(copy.remove("wide" + (char) 299));
+        assertTrue(copy.add("widest"));
+        assertEquals(pt.size(), copy.size());
+        
+        pt.clear();
+        assertTrue(readSnapshot(writeSnapshot(pt)).isEmpty());
+    }
+    
+    @Test
+    public void readSnapshotDetectsCorruption() throws IOException {
+        pt.add("abc");
+        pt.add("abd");
+        byte[] snapshot = writeSnapshot(pt);
+        
+        for (int i = 0; i < snapshot.length; ++i) {
+            byte[] corrupt = snapshot.clone();
+            corrupt[i] ^= 0x10;
+            
+            try {
+                readSnapshot(corrupt);
+                fail("Byte " + i + " was corrupted undetected.");
+            } catch (IOException ex) {
+                // Expected.
+            }
+        }
+        
+        try {
+            readSnapshot(Arrays.copyOf(snapshot, snapshot.length - 1));
+            fail("A truncated snapshot was read.");
+        } catch (IOException ex) {
+            // Expected.
+        }
+    }
+    
+    @Test
+    public void alphabet() {
+        PrefixTree dense = new PrefixTree(Alphabet.DIGITS);
+        Random random = new Random(53L);
+        
+        for (int i = 0; i < 5_000; ++i) {
+            String s = randomDigits(random, 6);
+            assertEquals(pt.add(s, i), dense.add(s, i));
+        }
+        
+        for (int i = 0; i < 2_000; ++i) {
+            String s = randomDigits(random, 6);
+            assertEquals(pt.remove(s), dense.remove(s));
+        }
+        
+        assertEquals(pt.size(), dense.size());
+        
+        // The sparse tree hashes the fan-out of ten, the dense one keeps 
+        // the children in the alphabet order:
+        assertEquals(sorted(pt.autocomplete("")), dense.autocomplete(""));
+        assertEquals(sorted(pt.autocomplete("12")), dense.autocomplete("12"));
+        assertEquals(pt.topK("3", 20), dense.topK("3", 20));
+        assertEquals(pt.countWithPrefix("4"), dense.countWithPrefix("4"));
+        assertEquals(dense.autocomplete("5").subList(10, 30), 
+                     dense.autocomplete("5", 10, 20));
+        
+        // Queries outside the alphabet simply find nothing:
+        assertFalse(dense.contains("12a"));
+        assertFalse(dense.remove("x"));
+        assertTrue(dense.autocomplete("a").isEmpty());
+    }
+    
+    @Test
+    public void alphabetRejectsForeignCharacters() {
+        PrefixTree dense = new PrefixTree(Alphabet.LOWERCASE_HEX);
+        dense.add("cafe");
+        
+        try {
+            dense.add("cafx");
+            fail("A character outside the alphabet was accepted.");
+        } catch (IllegalArgumentException ex) {
+            assertTrue(ex.getMessage().contains("'x' at index 3"));
+        }
+        
+        // The rejected string left no nodes behind:
+        PrefixTree expected = new PrefixTree(Alphabet.LOWERCASE_HEX);
+        expected.add("cafe");
+        assertEquals(List.of("cafe"), dense.autocomplete(""));
+        assertEquals(expected.memoryFootprint(), dense.memoryFootprint());
+        
+        try {
+            dense.addAllSorted(List.of("beef", "bEEf").iterator());
+            fail("A character outside the alphabet was accepted.");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+        
+        assertEquals(List.of("beef", "cafe"), dense.autocomplete(""));
+        
+        try {
+            new Alphabet("abca");
+            fail("A duplicate character was accepted.");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+    
+    private static List<String> sorted(List<String> list) {
+        Collections.sort(list);
+        return list;
+    }
+    
+    private static String randomDigits(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        
+        return sb.toString();
+    }
+    
+    private static byte[] writeSnapshot(PrefixTree tree) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        tree.writeSnapshot(out);
+        return out.toByteArray();
+    }
+    
+    private static PrefixTree readSnapshot(byte[] snapshot) 
+            throws IOException {
+        return PrefixTree.readSnapshot(new ByteArrayInputStream(snapshot));
+    }
 }
@@ -0,0 +1,171 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.RadixTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RadixTreeTest {
+    
+    private final RadixTree rt = new RadixTree();
+    
+    @Before
+    public void before() {
+        rt.clear();
+    }
+    
+    @Test
+    public void addAndContainsString() {
+        assertTrue(rt.add("romane"));
+        assertTrue(rt.add("romanus"));
+        assertTrue(rt.add("romulus"));
+        assertTrue(rt.add("rubens"));
+        assertTrue(rt.add("ruber"));
+        assertTrue(rt.add("rom"));
+        
+        assertFalse(rt.add("romane"));
+        assertFalse(rt.add("rom"));
+        
+        assertTrue(rt.contains("romane"));
+        assertTrue(rt.contains("romanus"));
+        assertTrue(rt.contains("romulus"));
+        assertTrue(rt.contains("rubens"));
+        assertTrue(rt.contains("ruber"));
+        assertTrue(rt.contains("rom"));
+        
+        assertFalse(rt.contains("r"));
+        assertFalse(rt.contains("roman"));
+        assertFalse(rt.contains("romanes"));
+        assertFalse(rt.contains("rub"));
+        assertEquals(6, rt.size());
+    }
+    
+    @Test
+    public void removeMergesEdges() {
+        rt.add("test");
+        rt.add("team");
+        rt.add("toast");
+        
+        assertTrue(rt.remove("team"));
+        assertFalse(rt.remove("team"));
+        assertFalse(rt.remove("te"));
+        assertTrue(rt.contains("test"));
+        assertTrue(rt.contains("toast"));
+        
+        assertTrue(rt.remove("test"));
+        assertTrue(rt.contains("toast"));
+        assertFalse(rt.contains("t"));
+        
+        rt.add("to");
+        assertTrue(rt.remove("toast"));
+        assertEquals(List.of("to"), rt.autocomplete(""));
+        
+        assertTrue(rt.remove("to"));
+        assertTrue(rt.isEmpty());
+        assertTrue(rt.autocomplete("").isEmpty());
+    }
+    
+    @Test
+    public void autocompleteWithinEdge() {
+        rt.add("application");
+        rt.add("apply");
+        rt.add("banana");
+        
+        List<String> list = rt.autocomplete("app");
+        Collections.sort(list);
+        assertEquals(List.of("application", "apply"), list);
+        
+        assertEquals(List.of("application"), rt.autocomplete("appli"));
+        assertEquals(List.of("banana"), rt.autocomplete("ba"));
+        assertTrue(rt.autocomplete("bb").isEmpty());
+        assertTrue(rt.autocomplete("bananas").isEmpty());
+    }
+    
+    @Test
+    public void emptyString() {
+        rt.add("a");
+        
+        assertFalse(rt.contains(""));
+        assertTrue(rt.add(""));
+        assertTrue(rt.contains(""));
+        assertTrue(rt.remove(""));
+        assertFalse(rt.contains(""));
+        assertEquals(1, rt.size());
+    }
+    
+    @Test
+    public void agreesWithTreeSet() {
+        Random random = new Random(13L);
+        TreeSet<String> set = new TreeSet<>();
+        
+        for (int i = 0; i < 20_000; ++i) {
+            String s = randomString(random);
+            
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(s), rt.remove(s));
+            } else {
+                assertEquals(set.add(s), rt.add(s));
+            }
+            
+            assertEquals(set.size(), rt.size());
+        }
+        
+        List<String> iterated = new ArrayList<>();
+        
+        for (String s : rt) {
+            iterated.add(s);
+        }
+        
+        Collections.sort(iterated);
+        assertEquals(new ArrayList<>(set), iterated);
+        
+        for (String prefix : List.of("", "a", "ab", "abc", "ca")) {
+            List<String> expected = new ArrayList<>();
+            
+            for (String s : set.tailSet(prefix)) {
+                if (!s.startsWith(prefix)) {
+                    break;
+                }
+                
+                expected.add(s);
+            }
+            
+            List<String> actual = rt.autocomplete(prefix);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+    
+    private static String randomString(Random random) {
+        int length = random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        
+        for (int i = 0; i < length; ++i) {
+            sb.append((char)('a' + random.nextInt(3)));
+        }
+        
+        return sb.toString();
+    }
+    
+    @Test
+    public void memoryFootprint() {
+        long emptyFootprint = rt.memoryFootprint();
+        assertTrue(emptyFootprint > 0L);
+        
+        rt.add("abcdefghijklmnopqrstuvwxyz");
+        long footprint = rt.memoryFootprint();
+        assertTrue(footprint > emptyFootprint);
+        
+        // A longer label costs more than a one-character label:
+        rt.clear();
+        rt.add("a");
+        assertTrue(rt.memoryFootprint() < footprint);
+    }
+}
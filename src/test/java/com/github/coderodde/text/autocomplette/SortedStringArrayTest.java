@@ -0,0 +1,163 @@
+package com.github.coderodde.text.autocomplette;
+
+import com.github.coderodde.text.autocomplete.SortedStringArray;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SortedStringArrayTest {
+    
+    private final SortedStringArray array = new SortedStringArray();
+    
+    @Before
+    public void before() {
+        array.clear();
+    }
+    
+    @Test
+    public void addContainsAndRemove() {
+        assertTrue(array.add("in"));
+        assertTrue(array.add("inn"));
+        assertTrue(array.add("ink"));
+        assertFalse(array.add("in"));
+        
+        assertTrue(array.contains("in"));
+        assertTrue(array.contains("ink"));
+        assertFalse(array.contains("i"));
+        assertFalse(array.contains("inks"));
+        assertEquals(3, array.size());
+        
+        assertTrue(array.remove("ink"));
+        assertFalse(array.remove("ink"));
+        assertFalse(array.remove("i"));
+        assertEquals(List.of("in", "inn"), array.autocomplete(""));
+    }
+    
+    @Test
+    public void emptyString() {
+        assertTrue(array.add(""));
+        assertTrue(array.contains(""));
+        assertEquals(List.of(""), array.autocomplete(""));
+        assertTrue(array.remove(""));
+        assertTrue(array.isEmpty());
+    }
+    
+    @Test
+    public void autocompleteRange() {
+        array.addAll(List.of("a", "ab", "abc", "abd", "ac", "b", "ba"));
+        
+        assertEquals(List.of("ab", "abc", "abd"), array.autocomplete("ab"));
+        assertEquals(List.of("ab", "abc"), array.autocomplete("ab", 2));
+        assertEquals(List.of("b", "ba"), array.autocomplete("b"));
+        assertTrue(array.autocomplete("abe").isEmpty());
+        assertTrue(array.autocomplete("c").isEmpty());
+        assertTrue(array.autocomplete("ab", 0).isEmpty());
+        
+        assertEquals(7, array.countWithPrefix(""));
+        assertEquals(5, array.countWithPrefix("a"));
+        assertEquals(1, array.countWithPrefix("abc"));
+        assertEquals(0, array.countWithPrefix("bb"));
+    }
+    
+    @Test
+    public void addAllMerges() {
+        array.add("b");
+        array.add("d");
+        
+        assertEquals(3, array.addAll(List.of("e", "a", "c", "b", "a")));
+        assertEquals(0, array.addAll(List.of("a", "e")));
+        assertEquals(List.of("a", "b", "c", "d", "e"), array.autocomplete(""));
+        
+        // The merged arrays are still updatable one string at a time:
+        assertTrue(array.add("bb"));
+        assertTrue(array.remove("a"));
+        assertEquals(List.of("b", "bb", "c", "d", "e"), array.autocomplete(""));
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailsFast() {
+        array.add("a");
+        array.add("b");
+        
+        Iterator<String> iterator = array.iterator();
+        iterator.next();
+        array.add("c");
+        iterator.next();
+    }
+    
+    @Test
+    public void agreesWithTreeSet() {
+        Random random = new Random(41L);
+        TreeSet<String> set = new TreeSet<>();
+        
+        for (int i = 0; i < 20_000; ++i) {
+            String s = randomString(random);
+            
+            if (random.nextInt(3) == 0) {
+                assertEquals(set.remove(s), array.remove(s));
+            } else if (random.nextInt(100) == 0) {
+                List<String> batch = new ArrayList<>();
+                
+                for (int j = 0; j < 50; ++j) {
+                    batch.add(randomString(random));
+                }
+                
+                int added = 0;
+                
+                for (String t : batch) {
+                    if (set.add(t)) {
+                        added++;
+                    }
+                }
+                
+                assertEquals(added, array.addAll(batch));
+            } else {
+                assertEquals(set.add(s), array.add(s));
+            }
+            
+            assertEquals(set.size(), array.size());
+        }
+        
+        List<String> iterated = new ArrayList<>();
+        
+        for (String s : array) {
+            iterated.add(s);
+        }
+        
+        assertEquals(new ArrayList<>(set), iterated);
+        
+        for (String prefix : List.of("", "a", "ab", "abc", "ddd", "e")) {
+            List<String> expected = new ArrayList<>();
+            
+            for (String s : set.tailSet(prefix)) {
+                if (!s.startsWith(prefix)) {
+                    break;
+                }
+                
+                expected.add(s);
+            }
+            
+            assertEquals(expected, array.autocomplete(prefix));
+            assertEquals(expected.size(), array.countWithPrefix(prefix));
+        }
+    }
+    
+    private static String randomString(Random random) {
+        int length = random.nextInt(8);
+        StringBuilder sb = new StringBuilder(length);
+        
+        for (int i = 0; i < length; ++i) {
+            sb.append((char)('a' + random.nextInt(4)));
+        }
+        
+        return sb.toString();
+    }
+}